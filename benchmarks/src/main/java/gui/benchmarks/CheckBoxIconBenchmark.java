@@ -0,0 +1,39 @@
+package gui.benchmarks;
+
+import gui.components.CheckBoxIcon;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JLabel;
+import org.openjdk.jmh.annotations.*;
+
+/** Cost of painting a {@code CheckBoxIcon}, checked and unchecked */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class CheckBoxIconBenchmark {
+  @Param({"false", "true"})
+  public boolean selected;
+
+  private PaintFixture fixture;
+  private CheckBoxIcon icon;
+  private JLabel owner;
+
+  @Setup
+  public void setUp() {
+    fixture = new PaintFixture(16, 16);
+    icon = new CheckBoxIcon(selected);
+    owner = new JLabel();
+  }
+
+  @TearDown
+  public void tearDown() {
+    fixture.dispose();
+  }
+
+  @Benchmark
+  public void paint() {
+    icon.paintIcon(owner, fixture.graphics(), 0, 0);
+  }
+}
@@ -0,0 +1,40 @@
+package gui.benchmarks;
+
+import gui.components.CustomButton;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Cost of one {@code CustomButton} paint for each style, idle and hovered */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class CustomButtonBenchmark {
+  @Param({"DEFAULT", "ROUND", "PILL", "FLAT"})
+  public CustomButton.ButtonStyle style;
+
+  @Param({"false", "true"})
+  public boolean hover;
+
+  private PaintFixture fixture;
+  private CustomButton button;
+
+  @Setup
+  public void setUp() {
+    fixture = new PaintFixture(120, 40);
+    button = PaintFixture.prepare(new CustomButton("Start", style), 120, 40);
+    button.getModel().setRollover(hover);
+  }
+
+  @TearDown
+  public void tearDown() {
+    fixture.dispose();
+  }
+
+  @Benchmark
+  public void paint() {
+    button.paint(fixture.graphics());
+  }
+}
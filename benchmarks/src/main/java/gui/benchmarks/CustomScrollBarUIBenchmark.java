@@ -0,0 +1,36 @@
+package gui.benchmarks;
+
+import gui.components.CustomScrollBarUI;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JScrollBar;
+import org.openjdk.jmh.annotations.*;
+
+/** Cost of painting a vertical scroll bar using {@code CustomScrollBarUI} */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class CustomScrollBarUIBenchmark {
+  private PaintFixture fixture;
+  private JScrollBar scrollBar;
+
+  @Setup
+  public void setUp() {
+    fixture = new PaintFixture(12, 200);
+    scrollBar = new JScrollBar(JScrollBar.VERTICAL, 30, 20, 0, 100);
+    scrollBar.setUI(new CustomScrollBarUI());
+    PaintFixture.prepare(scrollBar, 12, 200);
+  }
+
+  @TearDown
+  public void tearDown() {
+    fixture.dispose();
+  }
+
+  @Benchmark
+  public void paint() {
+    scrollBar.paint(fixture.graphics());
+  }
+}
@@ -0,0 +1,40 @@
+package gui.benchmarks;
+
+import gui.components.CustomSliderUI;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JSlider;
+import org.openjdk.jmh.annotations.*;
+
+/** Cost of painting a slider using {@code CustomSliderUI}, idle and while dragging */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class CustomSliderUIBenchmark {
+  @Param({"false", "true"})
+  public boolean adjusting;
+
+  private PaintFixture fixture;
+  private JSlider slider;
+
+  @Setup
+  public void setUp() {
+    fixture = new PaintFixture(200, 24);
+    slider = new JSlider(0, 100, 40);
+    slider.setUI(new CustomSliderUI(slider));
+    slider.setValueIsAdjusting(adjusting);
+    PaintFixture.prepare(slider, 200, 24);
+  }
+
+  @TearDown
+  public void tearDown() {
+    fixture.dispose();
+  }
+
+  @Benchmark
+  public void paint() {
+    slider.paint(fixture.graphics());
+  }
+}
@@ -0,0 +1,62 @@
+package gui.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import script.random.DelayDistribution;
+import script.random.FastRandom;
+import script.random.ReactionProfile;
+
+/**
+ * Cost of one reaction delay: alias table lookups against computing a log-normal or a bimodal
+ * delay from {@link Random#nextGaussian()} on every call
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DelaySamplerBenchmark {
+  private static final double MU = Math.log(110);
+  private static final double SIGMA = 0.4;
+
+  private final Random random = new Random(42);
+  private final FastRandom fastRandom = new FastRandom(42);
+  private final DelayDistribution normal = ReactionProfile.NORMAL.getDistribution();
+  private final DelayDistribution distracted = ReactionProfile.DISTRACTED.getDistribution();
+
+  @Benchmark
+  public int logNormalGaussian() {
+    return clamp(Math.exp(MU + SIGMA * random.nextGaussian()), 45, 1500);
+  }
+
+  @Benchmark
+  public int logNormalTable() {
+    return normal.sample(fastRandom);
+  }
+
+  @Benchmark
+  public int logNormalTableThreadLocal() {
+    return normal.sample();
+  }
+
+  /** Two draws per call, the second a gamma(2) as the sum of two exponentials */
+  @Benchmark
+  public int bimodalGaussian() {
+    if (random.nextInt(16) != 0) {
+      return clamp(Math.exp(MU + SIGMA * random.nextGaussian()), 45, 1500);
+    }
+    double gamma = -1500 * (Math.log(1 - random.nextDouble()) + Math.log(1 - random.nextDouble()));
+    return clamp(gamma, 800, 9000);
+  }
+
+  @Benchmark
+  public int bimodalTable() {
+    return distracted.sample(fastRandom);
+  }
+
+  private static int clamp(double delay, int min, int max) {
+    return (int) Math.max(min, Math.min(max, delay));
+  }
+}
@@ -0,0 +1,56 @@
+package gui.benchmarks;
+
+import gui.components.ModernTabbedPane;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JPanel;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of painting a {@code ModernTabbedPane} with a handful of tabs, both a full paint and the
+ * clipped paint a hover change now triggers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ModernTabbedPaneBenchmark {
+  @Param({"2", "6"})
+  public int tabs;
+
+  private PaintFixture fixture;
+  private ModernTabbedPane pane;
+  private Rectangle hoverBounds;
+
+  @Setup
+  public void setUp() {
+    fixture = new PaintFixture(340, 200);
+    pane = new ModernTabbedPane();
+    for (int i = 0; i < tabs; i++) {
+      pane.addTab("Tab " + (i + 1), new JPanel());
+    }
+    PaintFixture.prepare(pane, 340, 200);
+    hoverBounds = pane.getBoundsAt(1);
+  }
+
+  @TearDown
+  public void tearDown() {
+    fixture.dispose();
+  }
+
+  @Benchmark
+  public void paint() {
+    pane.paint(fixture.graphics());
+  }
+
+  @Benchmark
+  public void paintHoverDirtyRect() {
+    Graphics2D g2d = (Graphics2D) fixture.graphics().create();
+    g2d.clip(hoverBounds);
+    pane.paint(g2d);
+    g2d.dispose();
+  }
+}
@@ -0,0 +1,75 @@
+package gui.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import script.mouse.MousePath;
+import script.mouse.PathCache;
+import script.mouse.PathGenerator;
+
+/**
+ * Mouse path throughput, generating every path or replaying cached ones. The {@code points}
+ * counter gives points per microsecond; run with {@code -prof gc} to check that {@code
+ * gc.alloc.rate.norm} stays at zero.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MousePathBenchmark {
+  private static final int MOVES = 1024;
+
+  @Param({"false", "true"})
+  public boolean cached;
+
+  private final int[] moves = new int[MOVES * 4];
+  private final MousePath path = new MousePath();
+  private PathGenerator generator;
+  private PathCache cache;
+  private int next;
+
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class Points {
+    public long points;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      points = 0;
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    generator = new PathGenerator(42);
+    cache = new PathCache(generator, 64, 256, 8);
+    // A bank trip's worth of moves: 4 bank slots to 4 inventory slots, each click point varied
+    java.util.Random random = new java.util.Random(7);
+    for (int i = 0; i < MOVES; i++) {
+      int bank = random.nextInt(4);
+      int slot = random.nextInt(4);
+      moves[i * 4] = 80 + bank * 48 + random.nextInt(12);
+      moves[i * 4 + 1] = 110 + random.nextInt(12);
+      moves[i * 4 + 2] = 570 + slot * 42 + random.nextInt(12);
+      moves[i * 4 + 3] = 250 + random.nextInt(12);
+    }
+  }
+
+  @Benchmark
+  public MousePath path(Points counter) {
+    int i = next;
+    next = (i + 1) % MOVES;
+    int sx = moves[i * 4];
+    int sy = moves[i * 4 + 1];
+    int tx = moves[i * 4 + 2];
+    int ty = moves[i * 4 + 3];
+    if (cached) {
+      cache.path(sx, sy, tx, ty, path);
+    } else {
+      generator.generate(sx, sy, tx, ty, path);
+    }
+    counter.points += path.size();
+    return path;
+  }
+}
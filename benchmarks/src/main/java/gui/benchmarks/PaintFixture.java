@@ -0,0 +1,41 @@
+package gui.benchmarks;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import javax.swing.JComponent;
+import javax.swing.RepaintManager;
+
+/**
+ * Headless paint target shared by the rendering benchmarks. Components are painted straight into
+ * a {@link BufferedImage}, with Swing's own double buffering turned off so that only the
+ * component's paint code is measured.
+ */
+final class PaintFixture {
+  private final BufferedImage canvas;
+  private final Graphics2D graphics;
+
+  PaintFixture(int width, int height) {
+    canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    graphics = canvas.createGraphics();
+    graphics.setRenderingHint(
+        RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+  }
+
+  /** Sizes and lays out a component so it can be painted without a peer */
+  static <T extends JComponent> T prepare(T component, int width, int height) {
+    RepaintManager.currentManager(component).setDoubleBufferingEnabled(false);
+    component.setDoubleBuffered(false);
+    component.setSize(width, height);
+    component.doLayout();
+    return component;
+  }
+
+  Graphics2D graphics() {
+    return graphics;
+  }
+
+  void dispose() {
+    graphics.dispose();
+  }
+}
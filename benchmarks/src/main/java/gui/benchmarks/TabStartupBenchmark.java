@@ -0,0 +1,47 @@
+package gui.benchmarks;
+
+import gui.components.ModernTabbedPane;
+import java.awt.Component;
+import java.awt.GridLayout;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import org.openjdk.jmh.annotations.*;
+
+/** Time to build a {@code ModernTabbedPane} with many tabs, eagerly or with lazy tab content */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class TabStartupBenchmark {
+  @Param({"20"})
+  public int tabs;
+
+  @Param({"false", "true"})
+  public boolean lazy;
+
+  @Benchmark
+  public ModernTabbedPane build() {
+    ModernTabbedPane pane = new ModernTabbedPane();
+    for (int i = 0; i < tabs; i++) {
+      if (lazy) {
+        pane.addTab("Script " + i, TabStartupBenchmark::buildContent);
+      } else {
+        pane.addTab("Script " + i, buildContent());
+      }
+    }
+    return pane;
+  }
+
+  /** Stand-in for a script dashboard page */
+  private static Component buildContent() {
+    JPanel panel = new JPanel(new GridLayout(0, 2));
+    for (int i = 0; i < 20; i++) {
+      panel.add(new JLabel("Setting " + i));
+      panel.add(new JLabel("Value " + i));
+    }
+    return panel;
+  }
+}
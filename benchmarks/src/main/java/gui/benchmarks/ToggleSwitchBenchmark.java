@@ -0,0 +1,41 @@
+package gui.benchmarks;
+
+import gui.components.ToggleSwitch;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Cost of one {@code ToggleSwitch} paint at points along its ON/OFF animation */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ToggleSwitchBenchmark {
+  @Param({"0.0", "0.1", "0.25", "0.5", "0.75", "0.9", "1.0"})
+  public float position;
+
+  private PaintFixture fixture;
+  private ToggleSwitch toggle;
+
+  @Setup
+  public void setUp() throws ReflectiveOperationException {
+    fixture = new PaintFixture(80, 30);
+    toggle = PaintFixture.prepare(new ToggleSwitch(), 80, 30);
+    // The animation position has no public setter; pin it so every frame paints the same state
+    Field field = ToggleSwitch.class.getDeclaredField("position");
+    field.setAccessible(true);
+    field.setFloat(toggle, position);
+  }
+
+  @TearDown
+  public void tearDown() {
+    fixture.dispose();
+  }
+
+  @Benchmark
+  public void paint() {
+    toggle.paint(fixture.graphics());
+  }
+}
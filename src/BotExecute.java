@@ -1,9 +1,38 @@
 import java.awt.*;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.*;
+import org.dreambot.api.input.Mouse;
+import org.dreambot.api.input.mouse.algorithm.StandardMouseAlgorithm;
+import org.dreambot.api.methods.input.mouse.MouseSettings;
 import org.dreambot.api.script.AbstractScript;
 import org.dreambot.api.script.Category;
 import org.dreambot.api.script.ScriptManifest;
+import org.dreambot.api.script.listener.GameTickListener;
 import org.dreambot.api.script.listener.PaintListener;
+import script.config.ScriptConfig;
+import script.control.ControlState;
+import script.control.ScriptControl;
+import script.game.DreamBotGame;
+import script.game.GameApi;
+import script.herblore.BankTripPlanner;
+import script.herblore.HerbloreEngine;
+import script.herblore.Job;
+import script.herblore.Phase;
+import script.herblore.Recipe;
+import script.herblore.RecipeCatalog;
+import script.input.PathMouseAlgorithm;
+import script.log.Log;
+import script.log.Logger;
+import script.metrics.Counter;
+import script.metrics.Gauge;
+import script.metrics.LatencyHistogram;
+import script.metrics.Metrics;
+import script.mouse.MouseSpeedEngine;
+import script.paint.StatsOverlay;
+import script.random.ReactionProfile;
+import script.scheduler.LoopScheduler;
 
 @ScriptManifest(
         name = "XPEHerblore",
@@ -11,40 +40,224 @@ import org.dreambot.api.script.listener.PaintListener;
         version = 1.0,
         description = "All-in-one herblore script with modern UI",
         category = Category.HERBLORE)
-public class BotExecute extends AbstractScript implements PaintListener {
+public class BotExecute extends AbstractScript implements PaintListener, GameTickListener {
+    private static final Logger LOG = Log.get("XPEHerblore");
+    private static final LatencyHistogram LOOP_LATENCY = Metrics.histogram("loop.latency");
+    private static final Counter LOOP_ITERATIONS = Metrics.counter("loop.iterations");
+    private static final Counter ACTIONS = Metrics.counter("engine.actions");
+    private static final Gauge XP_PER_HOUR = Metrics.gauge("xp.perHour");
+    private static final Gauge ACTIONS_PER_HOUR = Metrics.gauge("actions.perHour");
+    private static final int MIN_MOUSE_SPEED = 35;
+    private static final int MAX_MOUSE_SPEED = 95;
+
+    private final LoopScheduler scheduler = new LoopScheduler();
+    private final GameApi game = new DreamBotGame();
+    private final HerbloreEngine engine = new HerbloreEngine(game);
+    private final ScriptControl control = new ScriptControl();
+    private ControlState applied = ControlState.INITIAL;
+    private MouseSpeedEngine mouseSpeed;
+    private PathMouseAlgorithm mousePaths;
+    private StatsOverlay overlay;
+    private long startTime;
+    private int startXp = -1;
     private HerbloreAIO herbloreGUI;
 
     @Override
     public void onStart() {
-        // Just create and show the GUI
+        onStart(new String[0]);
+    }
+
+    @Override
+    public void onStart(String... params) {
+        startTime = System.currentTimeMillis();
+        mouseSpeed = new MouseSpeedEngine(
+                MouseSettings::setSpeed,
+                MouseSettings.getSpeed(),
+                MIN_MOUSE_SPEED,
+                MAX_MOUSE_SPEED,
+                System.nanoTime());
+        // Only installed while the dynamic mouse is on, see setDynamicPaths
+        mousePaths = new PathMouseAlgorithm(MouseSettings::getSpeed, System.nanoTime());
+
+        ScriptConfig config;
+        try {
+            config = ScriptConfig.load(params);
+        } catch (IOException e) {
+            LOG.error("Failed to read the config file", e);
+            stop();
+            return;
+        }
+        LOG.info(config::toString);
+        ReactionProfile reaction = ReactionProfile.find(config.getReaction());
+        if (reaction == null) {
+            LOG.warn("Unknown reaction profile " + config.getReaction() + ", using normal");
+            reaction = ReactionProfile.NORMAL;
+        }
+        scheduler.setReaction(reaction.getDistribution());
+        engine.setPipelining(config.isPipeline());
+
+        if (config.isHeadless()) {
+            startHeadless(config);
+        } else {
+            startGui();
+        }
+    }
+
+    /** Starts straight from the config, without loading any AWT or Swing classes */
+    private void startHeadless(ScriptConfig config) {
+        if (config.getJobs() != null) {
+            startHeadlessQueue(config);
+            return;
+        }
+        Recipe recipe = RecipeCatalog.getDefault().find(config.getPotion());
+        if (recipe == null) {
+            LOG.warn("Headless mode needs a valid potion=<name>, got: " + config.getPotion());
+            stop();
+            return;
+        }
+        LOG.info(() -> "Headless start: " + recipe + ", dynamic mouse " + config.isDynamicMouse());
+        LOG.info(() -> String.format("Expecting ~%.0f potions/h",
+                BankTripPlanner.estimatePotionsPerHour(recipe)));
+        control.setDynamicMouse(config.isDynamicMouse());
+        control.start(recipe);
+    }
+
+    private void startHeadlessQueue(ScriptConfig config) {
+        List<Job> jobs;
+        try {
+            jobs = Job.parseAll(config.getJobs(), RecipeCatalog.getDefault());
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid jobs=" + config.getJobs() + ": " + e.getMessage());
+            stop();
+            return;
+        }
+        if (jobs.isEmpty()) {
+            LOG.warn("Headless mode needs at least one job, got: " + config.getJobs());
+            stop();
+            return;
+        }
+        LOG.info(() -> "Headless start: " + jobs + ", dynamic mouse " + config.isDynamicMouse());
+        control.setDynamicMouse(config.isDynamicMouse());
+        for (Job job : jobs) {
+            control.addJob(job);
+        }
+        control.startQueue();
+    }
+
+    /**
+     * Prewarms the GUI resources on a background thread while the EDT sets the look and feel and
+     * shows the window shell
+     */
+    private void startGui() {
+        long startNanos = System.nanoTime();
+        CompletableFuture<Void> warmup = HerbloreAIO.prewarm();
+        overlay = new StatsOverlay(8, 8);
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
             } catch (Exception e) {
-                log("Failed to set look and feel");
+                LOG.warn("Failed to set look and feel");
             }
 
-            herbloreGUI = new HerbloreAIO();
-            try {
-                java.lang.reflect.Method method = HerbloreAIO.class.getDeclaredMethod("initGUI");
-                method.setAccessible(true);
-                method.invoke(herbloreGUI);
-            } catch (Exception e) {
-                log("Error creating GUI: " + e.getMessage());
-            }
+            herbloreGUI = new HerbloreAIO(engine, control);
+            herbloreGUI.show(startNanos, warmup);
         });
     }
 
     @Override
     public int onLoop() {
-        return 1000;
+        long start = System.nanoTime();
+        scheduler.onWake();
+        applyControl(control.drain());
+        LoopScheduler.Mode mode = engine.loop();
+        if (!engine.isRunning()) {
+            mouseSpeed.stop();
+            setDynamicPaths(false);
+            if (applied.isRunning()) {
+                // Finished on its own; a later recipe change must not restart it
+                applied = control.finished();
+            }
+        }
+        updateOverlay();
+        LOOP_ITERATIONS.increment();
+        LOOP_LATENCY.recordSince(start);
+        return scheduler.nextDelay(mode);
+    }
+
+    /** Acts on the requests queued since the last iteration */
+    private void applyControl(ControlState state) {
+        ControlState previous = applied;
+        if (state == previous) {
+            return;
+        }
+        applied = state;
+        if (state.isRunning()) {
+            if (state.getGeneration() != previous.getGeneration()) {
+                if (state.isQueueRun()) {
+                    engine.start(state.getJobs());
+                } else {
+                    engine.start(state.getRecipe());
+                }
+            } else if (!state.isQueueRun() && state.getRecipe() != previous.getRecipe()) {
+                engine.start(state.getRecipe());
+            }
+        } else if (previous.isRunning()) {
+            engine.stop();
+        }
+        boolean dynamic = state.isRunning() && state.isDynamicMouse();
+        setDynamicPaths(dynamic);
+        if (dynamic) {
+            mouseSpeed.start();
+        } else {
+            mouseSpeed.stop();
+        }
+    }
+
+    /** Installs the path algorithm while the dynamic mouse is on, the standard one otherwise */
+    private void setDynamicPaths(boolean dynamic) {
+        if (dynamic == mousePaths.isEnabled()) {
+            return;
+        }
+        mousePaths.setEnabled(dynamic);
+        Mouse.setMouseAlgorithm(dynamic ? mousePaths : new StandardMouseAlgorithm());
+    }
+
+    private void updateOverlay() {
+        int xp = game.getHerbloreExperience();
+        if (startXp < 0 && xp > 0) {
+            startXp = xp;
+        }
+        long runtime = System.currentTimeMillis() - startTime;
+        long xpPerHour = startXp < 0 || runtime <= 0 ? 0 : (xp - startXp) * 3_600_000L / runtime;
+        XP_PER_HOUR.set(xpPerHour);
+        ACTIONS_PER_HOUR.set(runtime <= 0 ? 0 : ACTIONS.get() * 3_600_000L / runtime);
+        if (overlay != null) {
+            Phase phase = engine.getPhase();
+            String label = phase == null ? "Idle" : phase.getLabel();
+            overlay.update(runtime, engine.getPotionsMade(), xpPerHour, label);
+        }
+    }
+
+    @Override
+    public void onGameTick() {
+        scheduler.onGameTick();
+        engine.onGameTick();
     }
 
     @Override
     public void onExit() {
+        engine.stop();
+        if (mouseSpeed != null) {
+            mouseSpeed.stop();
+            setDynamicPaths(false);
+        }
+        Log.shutdown();
     }
 
     @Override
     public void onPaint(Graphics g) {
+        if (overlay != null) {
+            overlay.paint(g);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,326 +1,618 @@
 import gui.components.CustomButton;
 import gui.components.CustomScrollBarUI;
 import gui.components.StyleFactory;
+import gui.components.Theme;
 import gui.components.ToggleSwitch;
 import java.awt.*;
 import java.awt.event.*;
-import java.io.IOException;
-import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import script.control.ControlState;
+import script.control.ScriptControl;
+import script.herblore.BankTripPlanner;
+import script.herblore.HerbloreEngine;
+import script.herblore.Job;
+import script.herblore.JobQueue;
+import script.herblore.Recipe;
+import script.herblore.RecipeCatalog;
+import script.log.Log;
+import script.log.Logger;
+import script.metrics.Counter;
+import script.metrics.Gauge;
+import script.metrics.LatencyHistogram;
+import script.metrics.Metrics;
+import script.net.ReportDispatcher;
 
 public class HerbloreAIO {
+  private static final String WEBHOOK_URL =
+      "https://discord.com/api/webhooks/1318655450262011975/nrgLGz2Rc9ddh_YrEMce7_DGowd-FIC6-VsLjXaEkG73h9iwWHMo8A4Bg69Lf_xg8eyy";
+  private static final int REPORT_QUEUE_CAPACITY = 16;
+  private static final Logger LOG = Log.get("HerbloreBot");
+  private static final Counter GUI_STARTS = Metrics.counter("gui.start");
+  private static final Counter GUI_STOPS = Metrics.counter("gui.stop");
+  private static final Counter GUI_REPORTS = Metrics.counter("gui.report");
+  private static final LatencyHistogram GUI_ACTION = Metrics.histogram("gui.action");
+  private static final LatencyHistogram LOOP_LATENCY = Metrics.histogram("loop.latency");
+  private static final LatencyHistogram PAINT_LATENCY = Metrics.histogram("paint.latency");
+  private static final LatencyHistogram WAKE_DRIFT = Metrics.histogram("loop.drift");
+  private static final Gauge XP_PER_HOUR = Metrics.gauge("xp.perHour");
+  private static final Gauge FIRST_PAINT_MS = Metrics.gauge("gui.firstPaintMs");
+  private static final Gauge INTERACTIVE_MS = Metrics.gauge("gui.interactiveMs");
+  private static final Theme.Palette DISCORD_PALETTE =
+      new Theme.Palette(
+          new Color(114, 137, 218), // Discord color
+          new Color(134, 157, 238), // Lighter discord
+          new Color(94, 117, 198), // Darker discord
+          Color.WHITE);
+
+  private final HerbloreEngine engine;
+  private final ScriptControl control;
   private JFrame guiFrame;
-  private boolean isScriptRunning = false;
-  private boolean isDynamicMouseEnabled = false;
-
-  private static JComboBox<String> getStringJComboBox() {
-    String[] potionOptions = {
-      "Attack potion",
-      "Strength potion",
-      "Defense potion",
-      "Ranging potion",
-      "Magic potion",
-      "Prayer potion",
-      "Super attack potion",
-      "Super strength potion",
-      "Super defense potion",
-      "Super restore potion",
-      "Super energy potion",
-      "Saradomin brew",
-      "Antifire potion",
-      "Super antifire potion",
-      "Extended antifire potion",
-      "Extended super antifire potion"
-    };
-    JComboBox<String> potionDropdown = new JComboBox<>(potionOptions);
-    return potionDropdown;
+  private ReportDispatcher reportDispatcher;
+  private Timer statusTimer;
+  private Recipe selectedRecipe;
+  private final DefaultListModel<String> jobRows = new DefaultListModel<>();
+  // Startup instrumentation, only touched on the EDT
+  private long startNanos;
+  private boolean firstPaintRecorded;
+  private boolean controlsAdded;
+  private boolean interactiveRecorded;
+
+  /**
+   * @param engine The engine, only read for the status line
+   * @param control Where the buttons send their requests; the EDT is its only producer
+   */
+  public HerbloreAIO(HerbloreEngine engine, ScriptControl control) {
+    this.engine = engine;
+    this.control = control;
   }
 
-  private void initGUI() {
-    SwingUtilities.invokeLater(
-        () -> {
-          guiFrame =
-              new JFrame("AIO Herblore Bot") {
-                @Override
-                public Insets getInsets() {
-                  return new Insets(2, 2, 2, 2);
-                }
-              };
-          guiFrame.setSize(340, 220);
-          guiFrame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
-          guiFrame.addWindowListener(
-              new java.awt.event.WindowAdapter() {
-                @Override
-                public void windowClosing(WindowEvent e) {
-                  isScriptRunning = false;
-                  stop();
-                  guiFrame.dispose();
-                }
-              });
+  /**
+   * Starts loading what the window needs on a background thread: the look and feel class, the
+   * theme fonts, the button backgrounds and the recipe table. The EDT can meanwhile show the
+   * window shell.
+   *
+   * @return Completes when everything is loaded
+   */
+  public static CompletableFuture<Void> prewarm() {
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                Class.forName(UIManager.getSystemLookAndFeelClassName());
+                StyleFactory.prewarmFonts();
+                // Sizes as laid out in addControls
+                CustomButton.prewarm(CustomButton.ButtonStyle.PILL, Theme.Role.ACCENT, 70, 30);
+                CustomButton.prewarm(CustomButton.ButtonStyle.FLAT, DISCORD_PALETTE, 70, 30);
+                CustomButton.prewarm(CustomButton.ButtonStyle.FLAT, Theme.Role.SURFACE, 75, 30);
+                CustomButton.prewarm(CustomButton.ButtonStyle.PILL, Theme.Role.DANGER, 60, 30);
+                CustomButton.prewarm(CustomButton.ButtonStyle.FLAT, Theme.Role.INFO, 60, 24);
+                CustomButton.prewarm(CustomButton.ButtonStyle.FLAT, Theme.Role.SURFACE, 60, 24);
+                RecipeCatalog.getDefault();
+                done.complete(null);
+              } catch (Throwable t) {
+                // The controls wait for this future, so it has to complete whatever happens
+                done.completeExceptionally(t);
+              }
+            },
+            "gui-prewarm");
+    thread.setDaemon(true);
+    thread.start();
+    return done;
+  }
+
+  private static JComboBox<Recipe> getPotionComboBox() {
+    return new JComboBox<>(RecipeCatalog.getDefault().toArray());
+  }
+
+  /**
+   * Shows the window shell right away and adds the controls once the warm-up has finished. Must be
+   * called on the EDT.
+   *
+   * @param startNanos {@link System#nanoTime()} when the script started, for the startup metrics
+   * @param warmup The future returned by {@link #prewarm()}
+   */
+  public void show(long startNanos, CompletableFuture<Void> warmup) {
+    this.startNanos = startNanos;
+    guiFrame =
+        new JFrame("AIO Herblore Bot") {
+          @Override
+          public Insets getInsets() {
+            return new Insets(2, 2, 2, 2);
+          }
+        };
+    guiFrame.setSize(340, 335);
+    guiFrame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+    guiFrame.addWindowListener(
+        new java.awt.event.WindowAdapter() {
+          @Override
+          public void windowClosing(WindowEvent e) {
+            stop();
+            statusTimer.stop();
+            if (reportDispatcher != null) {
+              reportDispatcher.shutdown();
+            }
+            guiFrame.dispose();
+          }
+        });
+
+    // Set up the content pane
+    JComponent contentPane = darkPanel((JComponent) guiFrame.getContentPane());
+    contentPane.setLayout(new BorderLayout());
+
+    // Create main panel
+    JPanel mainPanel =
+        darkPanel(
+            new JPanel() {
+              @Override
+              public void paint(Graphics g) {
+                super.paint(g);
+                onMainPanelPainted();
+              }
+            });
+    mainPanel.setLayout(null); // Keep null layout for exact positioning
+
+    // Header
+    JLabel titleLabel =
+        StyleFactory.bind(
+            new JLabel("AIO Herblore Bot", JLabel.CENTER),
+            (label, theme) -> {
+              label.setFont(theme.getTitleFont());
+              label.setForeground(theme.getText());
+            });
+    titleLabel.setBounds(10, 5, 320, 25);
+    mainPanel.add(titleLabel);
+
+    // Status line
+    JPanel statusPanel =
+        StyleFactory.bind(
+            new JPanel(new BorderLayout()),
+            (panel, theme) -> panel.setBackground(theme.getBackgroundMedium()));
+    statusPanel.setBorder(new EmptyBorder(5, 6, 3, 6));
+
+    JLabel statusLabel =
+        StyleFactory.bind(
+            new JLabel("Loading..."),
+            (label, theme) -> {
+              label.setFont(theme.getTinyFont());
+              label.setForeground(theme.getText());
+            });
+    statusPanel.add(statusLabel, BorderLayout.WEST);
+
+    statusTimer = new Timer(1000, e -> updateStatus(statusLabel));
+    statusTimer.start();
+
+    contentPane.add(mainPanel, BorderLayout.CENTER);
+    contentPane.add(statusPanel, BorderLayout.SOUTH);
+
+    guiFrame.setLocationRelativeTo(null);
+    guiFrame.setVisible(true);
+
+    warmup.whenComplete(
+        (ignored, error) ->
+            SwingUtilities.invokeLater(
+                () -> {
+                  if (error != null) {
+                    LOG.warn("GUI warm-up failed: " + error);
+                  }
+                  addControls(mainPanel);
+                  mainPanel.revalidate();
+                  mainPanel.repaint();
+                  updateStatus(statusLabel);
+                }));
+  }
 
-          // Set up the content pane
-          Container contentPane = guiFrame.getContentPane();
-          contentPane.setBackground(StyleFactory.BG_DARK_COLOR);
-          contentPane.setLayout(new BorderLayout());
-
-          // Create main panel
-          JPanel mainPanel = new JPanel();
-          mainPanel.setBackground(StyleFactory.BG_DARK_COLOR);
-          mainPanel.setLayout(null); // Keep null layout for exact positioning
-
-          // Header
-          JLabel titleLabel = new JLabel("AIO Herblore Bot", JLabel.CENTER);
-          titleLabel.setFont(new Font("SansSerif", Font.BOLD, 16));
-          titleLabel.setForeground(StyleFactory.TEXT_COLOR);
-          titleLabel.setBounds(10, 5, 320, 25);
-          mainPanel.add(titleLabel);
-
-          // Potion Dropdown
-          JLabel potionLabel = new JLabel("Select Potion Type:");
-          potionLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
-          potionLabel.setForeground(StyleFactory.TEXT_COLOR);
-          potionLabel.setBounds(10, 40, 120, 20);
-          mainPanel.add(potionLabel);
-
-          JComboBox<String> potionDropdown = getStringJComboBox();
-          styleComboBox(potionDropdown);
-          potionDropdown.setBounds(130, 40, 190, 24);
-          mainPanel.add(potionDropdown);
-
-          // Dynamic Mouse Toggle
-          JLabel mouseLabel = new JLabel("Dynamic Mouse:");
-          mouseLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
-          mouseLabel.setForeground(StyleFactory.TEXT_COLOR);
-          mouseLabel.setBounds(10, 75, 120, 20);
-          mainPanel.add(mouseLabel);
-
-          ToggleSwitch dynamicMouseToggle = new ToggleSwitch();
-          dynamicMouseToggle.setPreferredSize(new Dimension(50, 24));
-          dynamicMouseToggle.setBounds(130, 75, 50, 24);
-          dynamicMouseToggle.addChangeListener(
-              e -> isDynamicMouseEnabled = dynamicMouseToggle.isSelected());
-          mainPanel.add(dynamicMouseToggle);
-
-          // Start Button
-          CustomButton startButton =
-              new CustomButton("Start", CustomButton.ButtonStyle.PILL)
-                  .setColors(
-                      StyleFactory.ACCENT_COLOR,
-                      StyleFactory.ACCENT_HOVER_COLOR,
-                      StyleFactory.ACCENT_PRESSED_COLOR)
-                  .setTextColor(Color.WHITE);
-          startButton.setBounds(20, 115, 70, 30);
-          startButton.addActionListener(
-              e -> {
-                String selectedPotion = (String) potionDropdown.getSelectedItem();
-                log(selectedPotion + " crafting selected!");
-                isDynamicMouseEnabled = dynamicMouseToggle.isSelected();
-                log("Dynamic Mouse Enabled: " + isDynamicMouseEnabled);
-                log("Crafting started!");
-                isScriptRunning = true;
-
-                if (isDynamicMouseEnabled) {
-                  startMouseSpeedThread();
+  /** Adds the interactive controls below the title */
+  private void addControls(JPanel mainPanel) {
+    // Potion Dropdown
+    JLabel potionLabel = styleLabel(new JLabel("Select Potion Type:"));
+    potionLabel.setBounds(10, 40, 120, 20);
+    mainPanel.add(potionLabel);
+
+    JComboBox<Recipe> potionDropdown = getPotionComboBox();
+    styleComboBox(potionDropdown);
+    potionDropdown.setBounds(130, 40, 190, 24);
+    potionDropdown.addActionListener(e -> selectRecipe((Recipe) potionDropdown.getSelectedItem()));
+    selectRecipe((Recipe) potionDropdown.getSelectedItem());
+    mainPanel.add(potionDropdown);
+
+    // Dynamic Mouse Toggle
+    JLabel mouseLabel = styleLabel(new JLabel("Dynamic Mouse:"));
+    mouseLabel.setBounds(10, 75, 120, 20);
+    mainPanel.add(mouseLabel);
+
+    ToggleSwitch dynamicMouseToggle = new ToggleSwitch();
+    dynamicMouseToggle.setPreferredSize(new Dimension(50, 24));
+    dynamicMouseToggle.setBounds(130, 75, 50, 24);
+    dynamicMouseToggle.addChangeListener(
+        e -> send(control.setDynamicMouse(dynamicMouseToggle.isSelected())));
+    mainPanel.add(dynamicMouseToggle);
+
+    // Job queue: the selected potion and an amount, empty meaning until out of stock
+    JLabel amountLabel = styleLabel(new JLabel("Amount:"));
+    amountLabel.setBounds(10, 110, 120, 20);
+    mainPanel.add(amountLabel);
+
+    JTextField amountField =
+        StyleFactory.bind(
+            new JTextField(),
+            (field, theme) -> {
+              field.setFont(theme.getSmallFont());
+              field.setBackground(theme.getBackgroundMedium());
+              field.setForeground(theme.getText());
+              field.setCaretColor(theme.getText());
+            });
+    amountField.setBorder(new EmptyBorder(2, 5, 2, 5));
+    amountField.setToolTipText("Potions to make; leave empty to use up the supplies");
+    amountField.setBounds(130, 110, 55, 24);
+    mainPanel.add(amountField);
+
+    CustomButton addButton =
+        new CustomButton("Add", CustomButton.ButtonStyle.FLAT).setRole(Theme.Role.INFO);
+    addButton.setBounds(195, 110, 60, 24);
+    addButton.addActionListener(
+        e -> {
+          Recipe recipe = (Recipe) potionDropdown.getSelectedItem();
+          if (recipe == null) {
+            return;
+          }
+          Job job;
+          try {
+            String amount = amountField.getText().trim();
+            job =
+                amount.isEmpty()
+                    ? Job.untilOutOfStock(recipe)
+                    : Job.potions(recipe, Integer.parseInt(amount));
+          } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(guiFrame, "Amount must be a positive number.");
+            return;
+          }
+          LOG.info(() -> "Queued " + job);
+          send(control.addJob(job));
+        });
+    mainPanel.add(addButton);
+
+    CustomButton clearButton =
+        new CustomButton("Clear", CustomButton.ButtonStyle.FLAT).setRole(Theme.Role.SURFACE);
+    clearButton.setBounds(265, 110, 60, 24);
+    clearButton.addActionListener(e -> send(control.clearJobs()));
+    mainPanel.add(clearButton);
+
+    JList<String> jobList =
+        StyleFactory.bind(
+            new JList<>(jobRows),
+            (list, theme) -> {
+              list.setFont(theme.getSmallFont());
+              list.setBackground(theme.getBackgroundMedium());
+              list.setForeground(theme.getText());
+            });
+    jobList.setCellRenderer(listRenderer());
+    jobList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+    JScrollPane jobScroll = new JScrollPane(jobList);
+    jobScroll.setBorder(BorderFactory.createEmptyBorder());
+    jobScroll.getVerticalScrollBar().setUI(new CustomScrollBarUI());
+    jobScroll.setBounds(10, 142, 315, 80);
+    mainPanel.add(jobScroll);
+
+    // Start Button
+    CustomButton startButton = new CustomButton("Start", CustomButton.ButtonStyle.PILL);
+    startButton.setBounds(20, 230, 70, 30);
+    startButton.addActionListener(
+        e -> {
+          long actionStart = System.nanoTime();
+          // Includes jobs the script thread has not picked up yet, like the job list
+          int queued = control.getOfferedJobs().size();
+          if (queued > 0) {
+            GUI_STARTS.increment();
+            LOG.info(() -> "Job queue of " + queued + " started!");
+            send(control.startQueue());
+            GUI_ACTION.recordSince(actionStart);
+            return;
+          }
+          Recipe recipe = (Recipe) potionDropdown.getSelectedItem();
+          if (recipe == null) {
+            return;
+          }
+          GUI_STARTS.increment();
+          LOG.info(() -> recipe + " crafting selected!");
+          LOG.info(
+              dynamicMouseToggle.isSelected()
+                  ? "Dynamic Mouse Enabled: true"
+                  : "Dynamic Mouse Enabled: false");
+          LOG.info("Crafting started!");
+          LOG.info(
+              () ->
+                  String.format(
+                      "Expecting ~%.0f potions/h", BankTripPlanner.estimatePotionsPerHour(recipe)));
+          send(control.start(recipe));
+          GUI_ACTION.recordSince(actionStart);
+        });
+    mainPanel.add(startButton);
+
+    // Discord Button
+    CustomButton discordButton =
+        new CustomButton("Discord", CustomButton.ButtonStyle.FLAT).setColors(DISCORD_PALETTE);
+    discordButton.setBounds(100, 230, 70, 30);
+    discordButton.addActionListener(
+        e -> {
+          try {
+            Desktop.getDesktop().browse(new java.net.URI("https://discord.gg/KcKRsG8p2s"));
+          } catch (Exception ex) {
+            LOG.error("Failed to open Discord link", ex);
+          }
+        });
+    mainPanel.add(discordButton);
+
+    // Report Bug Button
+    CustomButton reportBugButton =
+        new CustomButton("Report Bug", CustomButton.ButtonStyle.FLAT).setRole(Theme.Role.SURFACE);
+    reportBugButton.setBounds(180, 230, 75, 30);
+    reportBugButton.addActionListener(
+        e -> {
+          JFrame bugReportFrame = new JFrame("Bug Report");
+          bugReportFrame.setSize(400, 300);
+          bugReportFrame.setLayout(new BorderLayout());
+
+          // Create styled content panel
+          JPanel contentPanel = darkPanel(new JPanel(new BorderLayout(10, 10)));
+          contentPanel.setBorder(new EmptyBorder(15, 15, 15, 15));
+
+          JLabel titleReportLabel = styleLabel(new JLabel("Describe the issue:"));
+          contentPanel.add(titleReportLabel, BorderLayout.NORTH);
+
+          JTextArea bugTextArea =
+              StyleFactory.bind(
+                  new JTextArea(),
+                  (area, theme) -> {
+                    area.setFont(theme.getSmallFont());
+                    area.setBackground(theme.getBackgroundMedium());
+                    area.setForeground(theme.getText());
+                  });
+          bugTextArea.setLineWrap(true);
+          bugTextArea.setWrapStyleWord(true);
+          bugTextArea.setBorder(new EmptyBorder(8, 8, 8, 8));
+
+          JScrollPane scrollPane = new JScrollPane(bugTextArea);
+          scrollPane.setBorder(BorderFactory.createEmptyBorder());
+          scrollPane.getVerticalScrollBar().setUI(new CustomScrollBarUI());
+          contentPanel.add(scrollPane, BorderLayout.CENTER);
+
+          JPanel buttonPanel = darkPanel(new JPanel(new FlowLayout(FlowLayout.RIGHT)));
+
+          CustomButton sendButton = new CustomButton("Send", CustomButton.ButtonStyle.PILL);
+
+          sendButton.addActionListener(
+              ev -> {
+                String bugReportContent = bugTextArea.getText();
+                if (bugReportContent.isEmpty()) {
+                  JOptionPane.showMessageDialog(bugReportFrame, "Bug report cannot be empty.");
+                  return;
                 }
-              });
-          mainPanel.add(startButton);
-
-          // Discord Button
-          CustomButton discordButton =
-              new CustomButton("Discord", CustomButton.ButtonStyle.FLAT)
-                  .setColors(
-                      new Color(114, 137, 218), // Discord color
-                      new Color(134, 157, 238), // Lighter discord
-                      new Color(94, 117, 198) // Darker discord
-                      )
-                  .setTextColor(Color.WHITE);
-          discordButton.setBounds(100, 115, 70, 30);
-          discordButton.addActionListener(
-              e -> {
-                try {
-                  Desktop.getDesktop().browse(new java.net.URI("https://discord.gg/KcKRsG8p2s"));
-                } catch (Exception ex) {
-                  log("Failed to open Discord link: " + ex.getMessage());
+
+                long actionStart = System.nanoTime();
+                GUI_REPORTS.increment();
+                sendButton.setEnabled(false);
+                boolean queued =
+                    getReportDispatcher()
+                        .submit(
+                            bugReportContent,
+                            result -> {
+                              sendButton.setEnabled(true);
+                              if (result.isSuccess()) {
+                                JOptionPane.showMessageDialog(
+                                    bugReportFrame, "Bug report sent successfully!");
+                                bugReportFrame.dispose();
+                              } else {
+                                JOptionPane.showMessageDialog(
+                                    bugReportFrame,
+                                    "Failed to send the bug report. " + result.getError());
+                              }
+                            });
+                if (!queued) {
+                  sendButton.setEnabled(true);
+                  JOptionPane.showMessageDialog(
+                      bugReportFrame, "Too many reports pending, please try again later.");
                 }
+                GUI_ACTION.recordSince(actionStart);
               });
-          mainPanel.add(discordButton);
-
-          // Report Bug Button
-          CustomButton reportBugButton =
-              new CustomButton("Report Bug", CustomButton.ButtonStyle.FLAT)
-                  .setColors(
-                      StyleFactory.BG_MEDIUM_COLOR,
-                      StyleFactory.BG_LIGHT_COLOR,
-                      StyleFactory.BG_DARK_COLOR)
-                  .setTextColor(StyleFactory.TEXT_COLOR);
-          reportBugButton.setBounds(180, 115, 75, 30);
-          reportBugButton.addActionListener(
-              e -> {
-                JFrame bugReportFrame = new JFrame("Bug Report");
-                bugReportFrame.setSize(400, 300);
-                bugReportFrame.setLayout(new BorderLayout());
-
-                // Create styled content panel
-                JPanel contentPanel = new JPanel(new BorderLayout(10, 10));
-                contentPanel.setBackground(StyleFactory.BG_DARK_COLOR);
-                contentPanel.setBorder(new EmptyBorder(15, 15, 15, 15));
-
-                JLabel titleReportLabel = new JLabel("Describe the issue:");
-                titleReportLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
-                titleReportLabel.setForeground(StyleFactory.TEXT_COLOR);
-                contentPanel.add(titleReportLabel, BorderLayout.NORTH);
-
-                JTextArea bugTextArea = new JTextArea();
-                bugTextArea.setFont(new Font("SansSerif", Font.PLAIN, 12));
-                bugTextArea.setLineWrap(true);
-                bugTextArea.setWrapStyleWord(true);
-                bugTextArea.setBackground(StyleFactory.BG_MEDIUM_COLOR);
-                bugTextArea.setForeground(StyleFactory.TEXT_COLOR);
-                bugTextArea.setBorder(new EmptyBorder(8, 8, 8, 8));
-
-                JScrollPane scrollPane = new JScrollPane(bugTextArea);
-                scrollPane.setBorder(BorderFactory.createEmptyBorder());
-                scrollPane.getVerticalScrollBar().setUI(new CustomScrollBarUI());
-                contentPanel.add(scrollPane, BorderLayout.CENTER);
-
-                JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-                buttonPanel.setBackground(StyleFactory.BG_DARK_COLOR);
-
-                CustomButton sendButton =
-                    new CustomButton("Send", CustomButton.ButtonStyle.PILL)
-                        .setColors(
-                            StyleFactory.ACCENT_COLOR,
-                            StyleFactory.ACCENT_HOVER_COLOR,
-                            StyleFactory.ACCENT_PRESSED_COLOR)
-                        .setTextColor(Color.WHITE);
-
-                sendButton.addActionListener(
-                    ev -> {
-                      String bugReportContent = bugTextArea.getText();
-                      if (!bugReportContent.isEmpty()) {
-                        try {
-                          HttpURLConnection connection = getHttpURLConnection();
-
-                          String payload =
-                              "{\"content\": \"" + bugReportContent.replace("\"", "\\\"") + "\"}";
-                          try (java.io.OutputStream os = connection.getOutputStream()) {
-                            os.write(payload.getBytes());
-                            os.flush();
-                          }
-
-                          if (connection.getResponseCode() >= 200
-                              && connection.getResponseCode() <= 299) {
-                            JOptionPane.showMessageDialog(
-                                bugReportFrame, "Bug report sent successfully!");
-                            bugReportFrame.dispose();
-                          } else {
-                            JOptionPane.showMessageDialog(
-                                bugReportFrame,
-                                "Failed to send the bug report. HTTP Response Code: "
-                                    + connection.getResponseCode());
-                          }
-                        } catch (Exception ex) {
-                          JOptionPane.showMessageDialog(
-                              bugReportFrame, "An error occurred: " + ex.getMessage());
-                        }
-                      } else {
-                        JOptionPane.showMessageDialog(
-                            bugReportFrame, "Bug report cannot be empty.");
-                      }
-                    });
-
-                buttonPanel.add(sendButton);
-                contentPanel.add(buttonPanel, BorderLayout.SOUTH);
-
-                bugReportFrame.setContentPane(contentPanel);
-                bugReportFrame.setLocationRelativeTo(guiFrame);
-                bugReportFrame.setVisible(true);
-              });
-          mainPanel.add(reportBugButton);
-
-          // Stop Button
-          CustomButton stopButton =
-              new CustomButton("Stop", CustomButton.ButtonStyle.PILL)
-                  .setColors(new Color(160, 30, 30), new Color(180, 40, 40), new Color(140, 20, 20))
-                  .setTextColor(Color.WHITE);
-          stopButton.setBounds(265, 115, 60, 30);
-          stopButton.addActionListener(
-              e -> {
-                log("Crafting stopped!");
-                isScriptRunning = false;
-                stop();
-              });
-          mainPanel.add(stopButton);
 
-          // Status line
-          JPanel statusPanel = new JPanel(new BorderLayout());
-          statusPanel.setBackground(StyleFactory.BG_MEDIUM_COLOR);
-          statusPanel.setBorder(new EmptyBorder(5, 6, 3, 6));
+          buttonPanel.add(sendButton);
+          contentPanel.add(buttonPanel, BorderLayout.SOUTH);
 
-          JLabel statusLabel = new JLabel("Ready to start");
-          statusLabel.setFont(new Font("SansSerif", Font.PLAIN, 10));
-          statusLabel.setForeground(StyleFactory.TEXT_COLOR);
-          statusPanel.add(statusLabel, BorderLayout.WEST);
+          bugReportFrame.setContentPane(contentPanel);
+          bugReportFrame.setLocationRelativeTo(guiFrame);
+          bugReportFrame.setVisible(true);
+        });
+    mainPanel.add(reportBugButton);
+
+    // Stop Button
+    CustomButton stopButton =
+        new CustomButton("Stop", CustomButton.ButtonStyle.PILL).setRole(Theme.Role.DANGER);
+    stopButton.setBounds(265, 230, 60, 30);
+    stopButton.addActionListener(
+        e -> {
+          long actionStart = System.nanoTime();
+          GUI_STOPS.increment();
+          LOG.info("Crafting stopped!");
+          stop();
+          GUI_ACTION.recordSince(actionStart);
+        });
+    mainPanel.add(stopButton);
+    controlsAdded = true;
+  }
 
-          contentPane.add(mainPanel, BorderLayout.CENTER);
-          contentPane.add(statusPanel, BorderLayout.SOUTH);
+  /** Records time to first paint, and time to interactive once the controls have been painted */
+  private void onMainPanelPainted() {
+    if (!firstPaintRecorded) {
+      firstPaintRecorded = true;
+      long millis = (System.nanoTime() - startNanos) / 1_000_000;
+      FIRST_PAINT_MS.set(millis);
+      LOG.info(() -> "GUI first paint after " + millis + " ms");
+    }
+    if (controlsAdded && !interactiveRecorded) {
+      interactiveRecorded = true;
+      long millis = (System.nanoTime() - startNanos) / 1_000_000;
+      INTERACTIVE_MS.set(millis);
+      LOG.info(() -> "GUI interactive after " + millis + " ms");
+    }
+  }
 
-          guiFrame.setLocationRelativeTo(null);
-          guiFrame.setVisible(true);
-        });
+  private void selectRecipe(Recipe recipe) {
+    selectedRecipe = recipe;
+    send(control.selectRecipe(recipe));
   }
 
-  /** Style a combo box */
-  private void styleComboBox(JComboBox<String> comboBox) {
-    comboBox.setBackground(StyleFactory.BG_MEDIUM_COLOR);
-    comboBox.setForeground(StyleFactory.TEXT_COLOR);
-    comboBox.setFont(new Font("SansSerif", Font.PLAIN, 12));
+  /** Shows a snapshot of the script metrics and the trip plan in the status line */
+  private void updateStatus(JLabel statusLabel) {
+    if (!controlsAdded) {
+      return;
+    }
+    updateJobRows();
+    if (!engine.isRunning()) {
+      Recipe recipe = selectedRecipe;
+      statusLabel.setText(
+          recipe == null
+              ? "Ready to start"
+              : String.format(
+                  "Ready | ~%.0f potions/h expected",
+                  BankTripPlanner.estimatePotionsPerHour(recipe)));
+      statusLabel.setToolTipText(null);
+      return;
+    }
+    BankTripPlanner planner = engine.getPlanner();
+    int remaining = planner.getRemainingPotions();
+    statusLabel.setText(
+        String.format(
+            "Running | %d made%s | %.1fk xp/h",
+            engine.getPotionsMade(),
+            remaining < 0
+                ? ""
+                : String.format(
+                    ", %d left (~%d min)", remaining, planner.getRemainingMillis() / 60_000),
+            XP_PER_HOUR.get() / 1000.0));
+    statusLabel.setToolTipText(
+        String.format(
+            "Loop p95 %.2f ms | Drift p95 %d ms | Paint p95 %.3f ms | %.2f ticks lost per trip",
+            LOOP_LATENCY.getPercentileNanos(95) / 1_000_000.0,
+            WAKE_DRIFT.getPercentileNanos(95) / 1_000_000,
+            PAINT_LATENCY.getPercentileNanos(95) / 1_000_000.0,
+            engine.getTicksLostPerCycle()));
+  }
 
-    comboBox.setRenderer(
-        new DefaultListCellRenderer() {
-          @Override
-          public Component getListCellRendererComponent(
-              JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
-            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
-
-            if (isSelected) {
-              setBackground(StyleFactory.ACCENT_COLOR);
-              setForeground(Color.WHITE);
-            } else {
-              setBackground(StyleFactory.BG_MEDIUM_COLOR);
-              setForeground(StyleFactory.TEXT_COLOR);
-            }
+  /**
+   * Lists the queued jobs, with the progress of the running queue if the queue is what the script
+   * is working through
+   */
+  private void updateJobRows() {
+    ControlState state = control.getState();
+    JobQueue queue = engine.getJobs();
+    List<Job> jobs = control.getOfferedJobs();
+    int index = -1;
+    int made = 0;
+    if (state.isQueueRun() && queue != null && engine.isRunning()) {
+      jobs = queue.getJobs();
+      index = queue.getIndex();
+      made = queue.getMadeInCurrent();
+    }
+    List<String> rows = new ArrayList<>(jobs.size());
+    for (int i = 0; i < jobs.size(); i++) {
+      Job job = jobs.get(i);
+      String row = (i + 1) + ". " + job;
+      if (i < index) {
+        row += " - done";
+      } else if (i == index) {
+        row +=
+            job.isUntilOutOfStock()
+                ? " - " + made + " made"
+                : " - " + made + "/" + job.getTargetPotions();
+      }
+      rows.add(row);
+    }
+    if (!rows.equals(Collections.list(jobRows.elements()))) {
+      jobRows.clear();
+      rows.forEach(jobRows::addElement);
+    }
+  }
 
-            setBorder(new EmptyBorder(3, 5, 3, 5));
-            return this;
-          }
+  /** Style a panel with the dark background */
+  private static <T extends JComponent> T darkPanel(T panel) {
+    return StyleFactory.bind(panel, (p, theme) -> p.setBackground(theme.getBackgroundDark()));
+  }
+
+  /** Style a regular label */
+  private static JLabel styleLabel(JLabel label) {
+    return StyleFactory.bind(
+        label,
+        (l, theme) -> {
+          l.setFont(theme.getSmallFont());
+          l.setForeground(theme.getText());
         });
   }
 
-  public static HttpURLConnection getHttpURLConnection() throws IOException {
-    String webhookURL =
-        "https://discord.com/api/webhooks/1318655450262011975/nrgLGz2Rc9ddh_YrEMce7_DGowd-FIC6-VsLjXaEkG73h9iwWHMo8A4Bg69Lf_xg8eyy";
-    java.net.URL url = new java.net.URL(webhookURL);
-    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-    connection.setRequestMethod("POST");
-    connection.setRequestProperty("Content-Type", "application/json");
-    connection.setDoOutput(true);
-    connection.setRequestProperty(
-        "User-Agent",
-        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/58.0.3029.110 Safari/537.3");
-    return connection;
+  /** Style a combo box */
+  private void styleComboBox(JComboBox<?> comboBox) {
+    StyleFactory.bind(
+        comboBox,
+        (box, theme) -> {
+          box.setBackground(theme.getBackgroundMedium());
+          box.setForeground(theme.getText());
+          box.setFont(theme.getSmallFont());
+        });
+
+    comboBox.setRenderer(listRenderer());
+  }
+
+  /** Renders list rows in the theme colors, highlighting the selection with the accent */
+  private static ListCellRenderer<Object> listRenderer() {
+    return new DefaultListCellRenderer() {
+      @Override
+      public Component getListCellRendererComponent(
+          JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+        super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+
+        Theme theme = StyleFactory.getTheme();
+        if (isSelected) {
+          setBackground(theme.getAccent());
+          setForeground(theme.getOnAccent());
+        } else {
+          setBackground(theme.getBackgroundMedium());
+          setForeground(theme.getText());
+        }
+
+        setBorder(new EmptyBorder(3, 5, 3, 5));
+        return this;
+      }
+    };
   }
 
-  private void startMouseSpeedThread() {
-    log("Starting dynamic mouse speed thread");
+  /** Creates the report dispatcher on first use; must be called on the EDT */
+  private ReportDispatcher getReportDispatcher() {
+    if (reportDispatcher == null) {
+      try {
+        reportDispatcher =
+            new ReportDispatcher(
+                new java.net.URL(WEBHOOK_URL), REPORT_QUEUE_CAPACITY, SwingUtilities::invokeLater);
+      } catch (java.net.MalformedURLException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    return reportDispatcher;
   }
 
-  private void log(String message) {
-    System.out.println("[HerbloreBot] " + message);
+  /** Logs requests the script thread will never see because its queue was full */
+  private static void send(boolean queued) {
+    if (!queued) {
+      LOG.warn("Script command queue full, request dropped");
+    }
   }
 
   private void stop() {
-    log("Bot stopped");
+    send(control.stop());
+    LOG.info("Bot stopped");
   }
 }
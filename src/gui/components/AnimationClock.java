@@ -0,0 +1,172 @@
+package gui.components;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.*;
+
+/**
+ * One shared timer that drives every component animation.
+ *
+ * <p>Animations are time based: each frame computes its value from the elapsed time and an easing
+ * curve, so a late frame never slows an animation down. All running animations are stepped in the
+ * same timer event, which lets the RepaintManager coalesce their repaints into one paint pass.
+ * The timer only runs while at least one animation is active, and animations whose component is
+ * no longer showing (e.g. the window was hidden) jump straight to their end value.
+ *
+ * <p>Must only be used from the Event Dispatch Thread.
+ */
+public final class AnimationClock {
+  /** Frame interval, roughly 60 frames per second */
+  public static final int FRAME_MS = 16;
+
+  private static final AnimationClock INSTANCE = new AnimationClock();
+
+  private final List<Animation> active = new ArrayList<>();
+  private final Timer timer;
+
+  private AnimationClock() {
+    timer = new Timer(FRAME_MS, e -> tick());
+    timer.setCoalesce(true);
+  }
+
+  /** @return The shared clock */
+  public static AnimationClock get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Creates an animated value owned by a component. Create it once and reuse it; starting and
+   * retargeting an animation does not allocate.
+   *
+   * @param owner Component repainted on every frame
+   * @param durationMs Time to animate across the full 0.0 to 1.0 range
+   * @param listener Receives each new value, may be null
+   * @return A new animation, initially at 0.0
+   */
+  public Animation create(JComponent owner, int durationMs, Listener listener) {
+    return new Animation(owner, durationMs, listener);
+  }
+
+  /** @return Whether the shared timer is currently running */
+  public boolean isRunning() {
+    return timer.isRunning();
+  }
+
+  private void schedule(Animation animation) {
+    if (!animation.scheduled) {
+      animation.scheduled = true;
+      active.add(animation);
+      if (!timer.isRunning()) {
+        timer.start();
+      }
+    }
+  }
+
+  private void tick() {
+    long now = System.nanoTime();
+    for (int i = active.size() - 1; i >= 0; i--) {
+      Animation animation = active.get(i);
+      if (animation.step(now)) {
+        animation.scheduled = false;
+        // Order does not matter, so swap-remove
+        int last = active.size() - 1;
+        active.set(i, active.get(last));
+        active.remove(last);
+      }
+    }
+    if (active.isEmpty()) {
+      timer.stop();
+    }
+  }
+
+  /** Ease-out cubic: fast start, gentle stop */
+  private static float ease(float t) {
+    float inverse = 1.0f - t;
+    return 1.0f - inverse * inverse * inverse;
+  }
+
+  /** Receives animation values */
+  public interface Listener {
+    void onFrame(float value);
+  }
+
+  /** A value between 0.0 and 1.0 animated by the shared clock */
+  public final class Animation {
+    private final JComponent owner;
+    private final long durationNanos;
+    private final Listener listener;
+    private float value;
+    private float from;
+    private float to;
+    private long startNanos;
+    private long runNanos;
+    private boolean scheduled;
+
+    private Animation(JComponent owner, int durationMs, Listener listener) {
+      this.owner = owner;
+      this.durationNanos = durationMs * 1_000_000L;
+      this.listener = listener;
+    }
+
+    /**
+     * Animates from the current value to a target. The duration is scaled by the distance, so
+     * reversing half way through takes half the time.
+     *
+     * @param target Target value between 0.0 and 1.0
+     */
+    public void animateTo(float target) {
+      if (target == to && (scheduled || value == target)) {
+        return;
+      }
+      from = value;
+      to = target;
+      startNanos = System.nanoTime();
+      runNanos = (long) (durationNanos * Math.abs(target - value));
+      if (runNanos == 0 || !owner.isShowing()) {
+        jumpTo(target);
+        return;
+      }
+      schedule(this);
+    }
+
+    /**
+     * Sets the value immediately, cancelling any running animation
+     *
+     * @param target New value between 0.0 and 1.0
+     */
+    public void jumpTo(float target) {
+      from = target;
+      to = target;
+      runNanos = 0;
+      set(target);
+    }
+
+    public float getValue() {
+      return value;
+    }
+
+    /** @return Whether this animation is waiting for frames */
+    public boolean isRunning() {
+      return scheduled && runNanos > 0;
+    }
+
+    /** @return true once the animation has finished */
+    private boolean step(long now) {
+      long elapsed = now - startNanos;
+      if (runNanos == 0 || elapsed >= runNanos || !owner.isShowing()) {
+        set(to);
+        return true;
+      }
+      set(from + (to - from) * ease(elapsed / (float) runNanos));
+      return false;
+    }
+
+    private void set(float newValue) {
+      value = newValue;
+      if (listener != null) {
+        listener.onFrame(newValue);
+      }
+      owner.repaint();
+    }
+  }
+}
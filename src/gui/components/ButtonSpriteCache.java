@@ -0,0 +1,144 @@
+package gui.components;
+
+import java.awt.*;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded LRU cache of pre-rendered {@link CustomButton} backgrounds, shared by all buttons.
+ *
+ * <p>A sprite is keyed by everything that affects its pixels: style, size, color, corner radius
+ * and the device scale it is drawn at. Buttons with the same look therefore share one image per
+ * state, and evicting a sprite only means the buttons still holding it stop sharing it.
+ */
+final class ButtonSpriteCache {
+  static final int MAX_ENTRIES = 128;
+
+  private static final ButtonSpriteCache SHARED = new ButtonSpriteCache(MAX_ENTRIES);
+
+  private final Map<Key, BufferedImage> sprites;
+
+  ButtonSpriteCache(int maxEntries) {
+    sprites =
+        new LinkedHashMap<Key, BufferedImage>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, BufferedImage> eldest) {
+            return size() > maxEntries;
+          }
+        };
+  }
+
+  /** @return The cache shared by all buttons */
+  static ButtonSpriteCache shared() {
+    return SHARED;
+  }
+
+  /**
+   * Gets or renders a button background
+   *
+   * @param style Button style
+   * @param width Width in user space
+   * @param height Height in user space
+   * @param color Fill color
+   * @param radius Corner radius for rounded styles
+   * @param scale Device scale the sprite will be drawn at
+   * @param config Graphics configuration to create a compatible image for, may be null
+   * @return The background, sized {@code width * scale} by {@code height * scale}
+   */
+  synchronized BufferedImage get(
+      CustomButton.ButtonStyle style,
+      int width,
+      int height,
+      Color color,
+      int radius,
+      double scale,
+      GraphicsConfiguration config) {
+    Key key = new Key(style, width, height, color.getRGB(), radius, scale);
+    BufferedImage sprite = sprites.get(key);
+    if (sprite == null) {
+      sprite = render(key, color, config);
+      sprites.put(key, sprite);
+    }
+    return sprite;
+  }
+
+  synchronized int size() {
+    return sprites.size();
+  }
+
+  synchronized void clear() {
+    sprites.clear();
+  }
+
+  private static BufferedImage render(Key key, Color color, GraphicsConfiguration config) {
+    int deviceWidth = Math.max(1, (int) Math.ceil(key.width * key.scale));
+    int deviceHeight = Math.max(1, (int) Math.ceil(key.height * key.scale));
+    BufferedImage image =
+        config != null
+            ? config.createCompatibleImage(deviceWidth, deviceHeight, Transparency.TRANSLUCENT)
+            : new BufferedImage(deviceWidth, deviceHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+
+    Graphics2D g2d = image.createGraphics();
+    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    g2d.scale(key.scale, key.scale);
+    g2d.setColor(color);
+    switch (key.style) {
+      case ROUND:
+        g2d.fillOval(0, 0, key.width, key.height);
+        break;
+
+      case PILL:
+      case FLAT:
+        g2d.fill(
+            new RoundRectangle2D.Float(0, 0, key.width, key.height, key.radius, key.radius));
+        break;
+
+      case DEFAULT:
+      default:
+        g2d.fillRect(0, 0, key.width, key.height);
+        break;
+    }
+    g2d.dispose();
+    return image;
+  }
+
+  private static final class Key {
+    final CustomButton.ButtonStyle style;
+    final int width;
+    final int height;
+    final int rgb;
+    final int radius;
+    final double scale;
+
+    Key(CustomButton.ButtonStyle style, int width, int height, int rgb, int radius, double scale) {
+      this.style = style;
+      this.width = width;
+      this.height = height;
+      this.rgb = rgb;
+      this.radius = radius;
+      this.scale = scale;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return style == other.style
+          && width == other.width
+          && height == other.height
+          && rgb == other.rgb
+          && radius == other.radius
+          && Double.compare(scale, other.scale) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(style, width, height, rgb, radius, scale);
+    }
+  }
+}
@@ -20,12 +20,13 @@ public class CheckBoxIcon implements Icon {
   public void paintIcon(Component c, Graphics g, int x, int y) {
     Graphics2D g2d = (Graphics2D) g.create();
     g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-    g2d.setColor(StyleFactory.BG_MEDIUM_COLOR);
+    Theme theme = StyleFactory.getTheme();
+    g2d.setColor(theme.getBackgroundMedium());
     g2d.fillRect(x, y, SIZE, SIZE);
-    g2d.setColor(selected ? StyleFactory.ACCENT_COLOR : StyleFactory.BORDER_COLOR);
+    g2d.setColor(selected ? theme.getAccent() : theme.getBorder());
     g2d.drawRect(x, y, SIZE - 1, SIZE - 1);
     if (selected) {
-      g2d.setColor(Color.WHITE);
+      g2d.setColor(theme.getOnAccent());
       g2d.setStroke(new BasicStroke(2));
       g2d.drawLine(x + 3, y + SIZE / 2, x + SIZE / 2, y + SIZE - 4);
       g2d.drawLine(x + SIZE / 2, y + SIZE - 4, x + SIZE - 3, y + 3);
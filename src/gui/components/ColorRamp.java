@@ -0,0 +1,81 @@
+package gui.components;
+
+import java.awt.Color;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed lookup table of colors along a 0.0 to 1.0 animation position.
+ *
+ * <p>Ramps are shared: every component asking for the same pair of colors gets the same instance,
+ * so sampling a ramp during an animation frame is an array read and allocates nothing.
+ */
+final class ColorRamp {
+  static final int STEPS = 64;
+
+  private static final Map<Long, ColorRamp> HSB_RAMPS = new ConcurrentHashMap<>();
+  private static final Map<Integer, ColorRamp> ALPHA_RAMPS = new ConcurrentHashMap<>();
+
+  private final Color[] colors;
+
+  private ColorRamp(Color[] colors) {
+    this.colors = colors;
+  }
+
+  /**
+   * Gets the ramp that interpolates between two colors in HSB space
+   *
+   * @param from Color at position 0.0
+   * @param to Color at position 1.0
+   * @return The shared ramp
+   */
+  static ColorRamp hsb(Color from, Color to) {
+    long key = ((long) from.getRGB() << 32) | (to.getRGB() & 0xFFFFFFFFL);
+    return HSB_RAMPS.computeIfAbsent(key, k -> createHsb(from, to));
+  }
+
+  /**
+   * Gets the ramp that fades a color in from fully transparent to fully opaque
+   *
+   * @param color The color to fade; its own alpha is ignored
+   * @return The shared ramp
+   */
+  static ColorRamp alpha(Color color) {
+    return ALPHA_RAMPS.computeIfAbsent(color.getRGB() & 0xFFFFFF, ColorRamp::createAlpha);
+  }
+
+  /**
+   * Samples the ramp
+   *
+   * @param position Position between 0.0 and 1.0; values outside are clamped
+   * @return The color at the nearest precomputed step
+   */
+  Color at(float position) {
+    int index = Math.round(position * (STEPS - 1));
+    return colors[Math.max(0, Math.min(STEPS - 1, index))];
+  }
+
+  private static ColorRamp createHsb(Color from, Color to) {
+    float[] fromHSB = Color.RGBtoHSB(from.getRed(), from.getGreen(), from.getBlue(), null);
+    float[] toHSB = Color.RGBtoHSB(to.getRed(), to.getGreen(), to.getBlue(), null);
+
+    Color[] colors = new Color[STEPS];
+    for (int i = 0; i < STEPS; i++) {
+      float position = i / (float) (STEPS - 1);
+      float h = fromHSB[0] + (toHSB[0] - fromHSB[0]) * position;
+      float s = fromHSB[1] + (toHSB[1] - fromHSB[1]) * position;
+      float b = fromHSB[2] + (toHSB[2] - fromHSB[2]) * position;
+      colors[i] = Color.getHSBColor(h, s, b);
+    }
+    return new ColorRamp(colors);
+  }
+
+  private static ColorRamp createAlpha(int rgb) {
+    Color[] colors = new Color[STEPS];
+    for (int i = 0; i < STEPS; i++) {
+      int alpha = Math.round(i * 255f / (STEPS - 1));
+      colors[i] = new Color((alpha << 24) | rgb, true);
+    }
+    return new ColorRamp(colors);
+  }
+}
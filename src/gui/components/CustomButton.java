@@ -1,9 +1,7 @@
 package gui.components;
 
 import java.awt.*;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
-import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
 import javax.swing.*;
 
 /**
@@ -11,16 +9,37 @@ import javax.swing.*;
  *
  * <p>Author Calle
  */
-public class CustomButton extends JButton {
+public class CustomButton extends JButton implements Themeable {
+  private static final int HOVER_FADE_MS = 120;
+  private static final int DEFAULT_CORNER_RADIUS = 10;
+  private static final AlphaComposite[] FADE = new AlphaComposite[32];
+
+  static {
+    for (int i = 0; i < FADE.length; i++) {
+      FADE[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, i / (float) (FADE.length - 1));
+    }
+  }
+
   // Style properties
   private final ButtonStyle style;
-  private final Color disabledColor = new Color(100, 100, 100); // Gray for disabled state
-  // Button colors
-  private Color defaultColor = new Color(0, 153, 102); // Default green
-  private Color hoverColor = new Color(0, 180, 120); // Lighter green for hover
-  private Color pressedColor = new Color(0, 120, 80); // Darker green for pressed
-  private Color textColor = Color.WHITE; // White text
-  private int cornerRadius = 10; // For rounded corners (PILL style)
+  // Button colors, taken from the theme palette of the role unless set explicitly
+  private Theme.Role role = Theme.Role.ACCENT;
+  private Theme.Palette palette;
+  private Color textColor;
+  private boolean fixedTextColor;
+  private Color disabledColor;
+  private int cornerRadius = DEFAULT_CORNER_RADIUS; // For rounded corners (PILL style)
+  private final AnimationClock.Animation hoverAnimation =
+      AnimationClock.get().create(this, HOVER_FADE_MS, null);
+  // Shared pre-rendered backgrounds, refetched when colors, radius, size or scale change
+  private BufferedImage defaultSprite;
+  private BufferedImage hoverSprite;
+  private BufferedImage pressedSprite;
+  private BufferedImage disabledSprite;
+  private int spriteWidth;
+  private int spriteHeight;
+  private double spriteScale;
+  private TextRun captionRun;
 
   /**
    * Creates a custom button with the default style
@@ -45,7 +64,7 @@ public class CustomButton extends JButton {
     setFocusPainted(false);
     setBorderPainted(false);
     setContentAreaFilled(false);
-    setFont(StyleFactory.BUTTON_FONT);
+    applyTheme(StyleFactory.getTheme());
     setCursor(new Cursor(Cursor.HAND_CURSOR));
 
     // Set preferred size based on style
@@ -62,37 +81,10 @@ public class CustomButton extends JButton {
         break;
     }
 
-    // Add hover and click effects
-    addMouseListener(
-        new MouseAdapter() {
-          @Override
-          public void mouseEntered(MouseEvent e) {
-            if (isEnabled()) {
-              repaint();
-            }
-          }
-
-          @Override
-          public void mouseExited(MouseEvent e) {
-            if (isEnabled()) {
-              repaint();
-            }
-          }
-
-          @Override
-          public void mousePressed(MouseEvent e) {
-            if (isEnabled()) {
-              repaint();
-            }
-          }
-
-          @Override
-          public void mouseReleased(MouseEvent e) {
-            if (isEnabled()) {
-              repaint();
-            }
-          }
-        });
+    // Fade the hover color in and out; the model also changes on press and release, in which
+    // case the target is unchanged and the animation carries on
+    setRolloverEnabled(true);
+    getModel().addChangeListener(e -> hoverAnimation.animateTo(getModel().isRollover() ? 1 : 0));
   }
 
   /**
@@ -102,13 +94,7 @@ public class CustomButton extends JButton {
    * @return A styled start button
    */
   public static CustomButton createStartButton(String text) {
-    return new CustomButton(text, ButtonStyle.PILL)
-        .setColors(
-            new Color(0, 153, 102), // Green
-            new Color(0, 180, 120), // Lighter green
-            new Color(0, 120, 80) // Darker green
-            )
-        .setTextColor(Color.WHITE);
+    return new CustomButton(text, ButtonStyle.PILL).setRole(Theme.Role.SUCCESS);
   }
 
   /**
@@ -117,13 +103,7 @@ public class CustomButton extends JButton {
    * @return A styled help button with "?" text
    */
   public static CustomButton createHelpButton() {
-    return new CustomButton("?", ButtonStyle.ROUND)
-        .setColors(
-            new Color(0, 153, 153), // Teal
-            new Color(0, 180, 180), // Lighter teal
-            new Color(0, 120, 120) // Darker teal
-            )
-        .setTextColor(Color.WHITE);
+    return new CustomButton("?", ButtonStyle.ROUND).setRole(Theme.Role.INFO);
   }
 
   /**
@@ -133,17 +113,80 @@ public class CustomButton extends JButton {
    * @return A styled cancel button
    */
   public static CustomButton createCancelButton(String text) {
-    return new CustomButton(text, ButtonStyle.FLAT)
-        .setColors(
-            new Color(150, 150, 150), // Gray
-            new Color(180, 180, 180), // Lighter gray
-            new Color(120, 120, 120) // Darker gray
-            )
-        .setTextColor(Color.WHITE);
+    return new CustomButton(text, ButtonStyle.FLAT).setRole(Theme.Role.NEUTRAL);
+  }
+
+  /**
+   * Renders the backgrounds of a button ahead of time, so its first paint only blits them. Safe to
+   * call off the EDT.
+   *
+   * @param style Button style
+   * @param role Role whose colors in the current theme the button will use
+   * @param width Button width
+   * @param height Button height
+   */
+  public static void prewarm(ButtonStyle style, Theme.Role role, int width, int height) {
+    prewarm(style, StyleFactory.getTheme().getPalette(role), width, height);
   }
 
   /**
-   * Sets the button colors
+   * Renders the backgrounds of a button ahead of time, so its first paint only blits them. Safe to
+   * call off the EDT.
+   *
+   * @param style Button style
+   * @param palette Colors the button will use
+   * @param width Button width
+   * @param height Button height
+   */
+  public static void prewarm(ButtonStyle style, Theme.Palette palette, int width, int height) {
+    if (style == ButtonStyle.DEFAULT) {
+      return;
+    }
+    GraphicsConfiguration config =
+        GraphicsEnvironment.isHeadless()
+            ? null
+            : GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice()
+                .getDefaultConfiguration();
+    double scale = config == null ? 1 : config.getDefaultTransform().getScaleX();
+    ButtonSpriteCache cache = ButtonSpriteCache.shared();
+    Color disabled = StyleFactory.getTheme().getDisabled();
+    for (Color color :
+        new Color[] {palette.getBase(), palette.getHover(), palette.getPressed(), disabled}) {
+      cache.get(style, width, height, color, DEFAULT_CORNER_RADIUS, scale, config);
+    }
+  }
+
+  /**
+   * Takes the button colors from a role of the current theme, following later theme switches
+   *
+   * @param role The role
+   * @return This button for method chaining
+   */
+  public CustomButton setRole(Theme.Role role) {
+    this.role = role;
+    applyTheme(StyleFactory.getTheme());
+    return this;
+  }
+
+  /**
+   * Sets fixed button colors that ignore theme switches
+   *
+   * @param palette The state and text colors
+   * @return This button for method chaining
+   */
+  public CustomButton setColors(Theme.Palette palette) {
+    this.role = null;
+    this.palette = palette;
+    if (!fixedTextColor) {
+      this.textColor = palette.getText();
+    }
+    invalidateSprites();
+    return this;
+  }
+
+  /**
+   * Sets fixed button colors that ignore theme switches
    *
    * @param defaultColor Normal state color
    * @param hoverColor Hover state color
@@ -151,11 +194,7 @@ public class CustomButton extends JButton {
    * @return This button for method chaining
    */
   public CustomButton setColors(Color defaultColor, Color hoverColor, Color pressedColor) {
-    this.defaultColor = defaultColor;
-    this.hoverColor = hoverColor;
-    this.pressedColor = pressedColor;
-    repaint();
-    return this;
+    return setColors(new Theme.Palette(defaultColor, hoverColor, pressedColor, textColor));
   }
 
   /**
@@ -166,6 +205,7 @@ public class CustomButton extends JButton {
    */
   public CustomButton setTextColor(Color textColor) {
     this.textColor = textColor;
+    this.fixedTextColor = true;
     repaint();
     return this;
   }
@@ -178,10 +218,23 @@ public class CustomButton extends JButton {
    */
   public CustomButton setCornerRadius(int radius) {
     this.cornerRadius = radius;
-    repaint();
+    invalidateSprites();
     return this;
   }
 
+  @Override
+  public void applyTheme(Theme theme) {
+    setFont(theme.getButtonFont());
+    disabledColor = theme.getDisabled();
+    if (role != null) {
+      palette = theme.getPalette(role);
+      if (!fixedTextColor) {
+        textColor = palette.getText();
+      }
+    }
+    invalidateSprites();
+  }
+
   @Override
   protected void paintComponent(Graphics g) {
     Graphics2D g2d = (Graphics2D) g.create();
@@ -189,53 +242,76 @@ public class CustomButton extends JButton {
 
     int width = getWidth();
     int height = getHeight();
+    if (style != ButtonStyle.DEFAULT) {
+      updateSprites(width, height, g2d.getTransform().getScaleX());
+    }
 
-    // Determine current color based on button state
-    Color currentColor;
-    if (!isEnabled()) {
-      currentColor = disabledColor;
+    // Plain rectangles are cheaper to fill than to blit; everything else uses the sprites,
+    // cross-fading the hover sprite in
+    if (style == ButtonStyle.DEFAULT) {
+      if (!isEnabled()) {
+        g2d.setColor(disabledColor);
+      } else if (getModel().isPressed()) {
+        g2d.setColor(palette.getPressed());
+      } else {
+        g2d.setColor(palette.getHoverRamp().at(hoverAnimation.getValue()));
+      }
+      g2d.fillRect(0, 0, width, height);
+    } else if (!isEnabled()) {
+      // A disabled flat button has no background, only greyed-out text
+      if (style != ButtonStyle.FLAT) {
+        g2d.drawImage(disabledSprite, 0, 0, width, height, null);
+      }
     } else if (getModel().isPressed()) {
-      currentColor = pressedColor;
-    } else if (getModel().isRollover()) {
-      currentColor = hoverColor;
+      g2d.drawImage(pressedSprite, 0, 0, width, height, null);
     } else {
-      currentColor = defaultColor;
+      float hover = hoverAnimation.getValue();
+      if (style != ButtonStyle.FLAT && hover < 1) {
+        g2d.drawImage(defaultSprite, 0, 0, width, height, null);
+      }
+      if (hover > 0) {
+        g2d.setComposite(FADE[Math.round(hover * (FADE.length - 1))]);
+        g2d.drawImage(hoverSprite, 0, 0, width, height, null);
+        g2d.setComposite(AlphaComposite.SrcOver);
+      }
     }
 
-    g2d.setColor(currentColor);
-
-    // Draw the button shape based on style
-    switch (style) {
-      case ROUND:
-        g2d.fillOval(0, 0, width, height);
-        break;
-
-      case PILL:
-        g2d.fill(new RoundRectangle2D.Float(0, 0, width, height, cornerRadius, cornerRadius));
-        break;
-
-      case FLAT:
-        if (getModel().isRollover() || getModel().isPressed()) {
-          g2d.fill(new RoundRectangle2D.Float(0, 0, width, height, cornerRadius, cornerRadius));
-        }
-        break;
-
-      case DEFAULT:
-      default:
-        g2d.fillRect(0, 0, width, height);
-        break;
+    // Draw the text from the shared, pre-shaped run
+    String text = getText();
+    if (text != null && !text.isEmpty()) {
+      captionRun =
+          TextRunCache.shared().refresh(captionRun, getFont(), text, g2d.getFontRenderContext());
+      g2d.setColor(style == ButtonStyle.FLAT && !isEnabled() ? disabledColor : textColor);
+      captionRun.draw(g2d, captionRun.centerX(0, width), captionRun.centerBaseline(0, height));
     }
 
-    // Draw the text
-    FontMetrics metrics = g2d.getFontMetrics(getFont());
-    int textX = (width - metrics.stringWidth(getText())) / 2;
-    int textY = ((height - metrics.getHeight()) / 2) + metrics.getAscent();
+    g2d.dispose();
+  }
 
-    g2d.setColor(textColor);
-    g2d.setFont(getFont());
-    g2d.drawString(getText(), textX, textY);
+  /** Fetches the background sprites again if anything they depend on has changed */
+  private void updateSprites(int width, int height, double scale) {
+    if (defaultSprite != null
+        && width == spriteWidth
+        && height == spriteHeight
+        && scale == spriteScale) {
+      return;
+    }
+    ButtonSpriteCache cache = ButtonSpriteCache.shared();
+    GraphicsConfiguration config = getGraphicsConfiguration();
+    defaultSprite = cache.get(style, width, height, palette.getBase(), cornerRadius, scale, config);
+    hoverSprite = cache.get(style, width, height, palette.getHover(), cornerRadius, scale, config);
+    pressedSprite =
+        cache.get(style, width, height, palette.getPressed(), cornerRadius, scale, config);
+    disabledSprite = cache.get(style, width, height, disabledColor, cornerRadius, scale, config);
+    spriteWidth = width;
+    spriteHeight = height;
+    spriteScale = scale;
+  }
 
-    g2d.dispose();
+  /** Forces the sprites to be fetched again on the next paint */
+  private void invalidateSprites() {
+    defaultSprite = null;
+    repaint();
   }
 
   @Override
@@ -12,12 +12,13 @@ import javax.swing.plaf.basic.BasicScrollBarUI;
 public class CustomScrollBarUI extends BasicScrollBarUI {
   @Override
   protected void configureScrollBarColors() {
-    this.thumbColor = StyleFactory.ACCENT_COLOR;
-    this.thumbDarkShadowColor = StyleFactory.BG_DARK_COLOR;
-    this.thumbHighlightColor = StyleFactory.ACCENT_COLOR;
-    this.thumbLightShadowColor = StyleFactory.ACCENT_COLOR;
-    this.trackColor = StyleFactory.BG_MEDIUM_COLOR;
-    this.trackHighlightColor = StyleFactory.BG_MEDIUM_COLOR;
+    Theme theme = StyleFactory.getTheme();
+    this.thumbColor = theme.getAccent();
+    this.thumbDarkShadowColor = theme.getBackgroundDark();
+    this.thumbHighlightColor = theme.getAccent();
+    this.thumbLightShadowColor = theme.getAccent();
+    this.trackColor = theme.getBackgroundMedium();
+    this.trackHighlightColor = theme.getBackgroundMedium();
   }
 
   @Override
@@ -47,7 +48,8 @@ public class CustomScrollBarUI extends BasicScrollBarUI {
     Graphics2D g2d = (Graphics2D) g.create();
     g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-    g2d.setColor(StyleFactory.ACCENT_COLOR);
+    // Read the theme at paint time so a theme switch needs no new UI
+    g2d.setColor(StyleFactory.getTheme().getAccent());
     g2d.fillRoundRect(
         thumbBounds.x + 1, thumbBounds.y + 1, thumbBounds.width - 2, thumbBounds.height - 2, 7, 7);
 
@@ -57,7 +59,7 @@ public class CustomScrollBarUI extends BasicScrollBarUI {
   @Override
   protected void paintTrack(Graphics g, JComponent c, Rectangle trackBounds) {
     Graphics2D g2d = (Graphics2D) g.create();
-    g2d.setColor(StyleFactory.BG_MEDIUM_COLOR);
+    g2d.setColor(StyleFactory.getTheme().getBackgroundMedium());
     g2d.fillRect(trackBounds.x, trackBounds.y, trackBounds.width, trackBounds.height);
     g2d.dispose();
   }
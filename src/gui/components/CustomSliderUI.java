@@ -12,6 +12,21 @@ import javax.swing.plaf.basic.BasicSliderUI;
 public class CustomSliderUI extends BasicSliderUI {
   private final Color accentColor;
 
+  /**
+   * Creates a slider UI using the accent color of the current theme
+   *
+   * @param slider The slider
+   */
+  public CustomSliderUI(JSlider slider) {
+    this(slider, null);
+  }
+
+  /**
+   * Creates a slider UI with a fixed accent color
+   *
+   * @param slider The slider
+   * @param accentColor Color of the filled track and thumb, or null to follow the theme
+   */
   public CustomSliderUI(JSlider slider, Color accentColor) {
     super(slider);
     this.accentColor = accentColor;
@@ -26,14 +41,15 @@ public class CustomSliderUI extends BasicSliderUI {
     int trackY = trackBounds.y + (trackBounds.height / 2) - 2;
 
     // Draw background track
-    g2d.setColor(StyleFactory.BG_DARK_COLOR);
+    Theme theme = StyleFactory.getTheme();
+    g2d.setColor(theme.getBackgroundDark());
     g2d.fillRoundRect(trackBounds.x, trackY, trackBounds.width, 4, 4, 4);
 
     // Draw filled portion
     int thumbX = thumbRect.x + (thumbRect.width / 2);
     int filledWidth = thumbX - trackBounds.x;
     if (filledWidth > 0) {
-      g2d.setColor(accentColor);
+      g2d.setColor(accentColor != null ? accentColor : theme.getAccent());
       g2d.fillRoundRect(trackBounds.x, trackY, filledWidth, 4, 4, 4);
     }
 
@@ -51,15 +67,17 @@ public class CustomSliderUI extends BasicSliderUI {
     int thumbWidth = thumbRect.width;
     int thumbHeight = thumbRect.height;
 
+    Theme theme = StyleFactory.getTheme();
     if (slider.isEnabled()) {
-      g2d.setColor(slider.getValueIsAdjusting() ? StyleFactory.ACCENT_HOVER_COLOR : accentColor);
+      Color accent = accentColor != null ? accentColor : theme.getAccent();
+      g2d.setColor(slider.getValueIsAdjusting() ? theme.getAccentHover() : accent);
       g2d.fillOval(thumbX, thumbY, thumbWidth, thumbHeight);
 
       // Add highlight
-      g2d.setColor(new Color(255, 255, 255, 100));
+      g2d.setColor(theme.getHighlight());
       g2d.fillOval(thumbX + 2, thumbY + 2, thumbWidth - 4, thumbHeight / 2 - 2);
     } else {
-      g2d.setColor(StyleFactory.DISABLED_COLOR);
+      g2d.setColor(theme.getDisabled());
       g2d.fillOval(thumbX, thumbY, thumbWidth, thumbHeight);
     }
 
@@ -4,23 +4,26 @@ import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.geom.RoundRectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
 import javax.swing.*;
 import javax.swing.plaf.basic.BasicTabbedPaneUI;
 
 /** Author Calle */
-public class ModernTabbedPane extends JTabbedPane {
-  private final Color selectedTabColor = StyleFactory.ACCENT_COLOR;
-  private final Color hoverTabColor = new Color(0, 180, 150);
-  private final Color unselectedTabColor = StyleFactory.BG_MEDIUM_COLOR;
-  private final Color textColor = StyleFactory.TEXT_COLOR;
-  private final Color selectedTextColor = Color.WHITE;
+public class ModernTabbedPane extends JTabbedPane implements Themeable {
+  private Color selectedTabColor;
+  private Color hoverTabColor;
+  private Color unselectedTabColor;
+  private Color textColor;
+  private Color selectedTextColor;
   private int hoverIndex = -1;
+  private int releaseDelayMs;
+  private Timer releaseTimer;
 
   public ModernTabbedPane() {
     super(JTabbedPane.TOP);
-    setBackground(StyleFactory.BG_DARK_COLOR);
-    setForeground(textColor);
-    setFont(StyleFactory.LABEL_FONT);
+    applyTheme(StyleFactory.getTheme());
     setTabLayoutPolicy(JTabbedPane.SCROLL_TAB_LAYOUT);
     setBorder(BorderFactory.createEmptyBorder());
     setUI(new ModernTabbedPaneUI());
@@ -29,8 +32,9 @@ public class ModernTabbedPane extends JTabbedPane {
         new MouseAdapter() {
           @Override
           public void mouseExited(MouseEvent e) {
+            int oldHoverIndex = hoverIndex;
             hoverIndex = -1;
-            repaint();
+            repaintTab(oldHoverIndex);
           }
         });
 
@@ -41,10 +45,25 @@ public class ModernTabbedPane extends JTabbedPane {
             int oldHoverIndex = hoverIndex;
             hoverIndex = indexAtLocation(e.getX(), e.getY());
             if (oldHoverIndex != hoverIndex) {
-              repaint();
+              repaintTab(oldHoverIndex);
+              repaintTab(hoverIndex);
             }
           }
         });
+
+    addChangeListener(e -> onSelectionChanged());
+  }
+
+  @Override
+  public void applyTheme(Theme theme) {
+    selectedTabColor = theme.getAccent();
+    hoverTabColor = theme.getTabHover();
+    unselectedTabColor = theme.getBackgroundMedium();
+    textColor = theme.getText();
+    selectedTextColor = theme.getOnAccent();
+    setBackground(theme.getBackgroundDark());
+    setForeground(textColor);
+    setFont(theme.getLabelFont());
   }
 
   public void addTab(String title, Component component) {
@@ -55,7 +74,142 @@ public class ModernTabbedPane extends JTabbedPane {
     super.addTab(title, null, component, tip);
   }
 
+  /**
+   * Adds a tab whose content is only built the first time the tab is selected
+   *
+   * @param title Tab title
+   * @param content Builds the tab content; called on the EDT
+   */
+  public void addTab(String title, Supplier<? extends Component> content) {
+    super.addTab(title, null, new LazyTab(content));
+  }
+
+  /**
+   * Adds a tab whose content is only built the first time the tab is selected
+   *
+   * @param title Tab title
+   * @param content Builds the tab content; called on the EDT
+   * @param tip Tooltip text
+   */
+  public void addTab(String title, Supplier<? extends Component> content, String tip) {
+    super.addTab(title, null, new LazyTab(content), tip);
+  }
+
+  /**
+   * Makes lazily built tabs drop their content once they have stayed hidden for a while. The
+   * content is built again from its supplier when the tab is next selected.
+   *
+   * @param delayMs How long a tab must stay hidden, or 0 to keep content forever (the default)
+   */
+  public void setReleaseHiddenTabsAfter(int delayMs) {
+    releaseDelayMs = delayMs;
+    if (delayMs <= 0 && releaseTimer != null) {
+      releaseTimer.stop();
+    }
+  }
+
+  /**
+   * @param index Tab index
+   * @return Whether the tab's content currently exists; always true for eagerly added tabs
+   */
+  public boolean isTabContentLoaded(int index) {
+    Component component = getComponentAt(index);
+    return !(component instanceof LazyTab) || ((LazyTab) component).content != null;
+  }
+
+  /** Repaints just the tab header at an index, not the whole pane */
+  private void repaintTab(int index) {
+    if (index >= 0 && index < getTabCount()) {
+      Rectangle bounds = getBoundsAt(index);
+      if (bounds != null) {
+        repaint(bounds);
+      }
+    }
+  }
+
+  private void onSelectionChanged() {
+    long now = System.currentTimeMillis();
+    Component selected = getSelectedComponent();
+    for (int i = 0; i < getTabCount(); i++) {
+      Component component = getComponentAt(i);
+      if (component instanceof LazyTab) {
+        LazyTab tab = (LazyTab) component;
+        if (tab == selected) {
+          tab.load();
+        } else if (tab.hiddenSince == 0) {
+          tab.hiddenSince = now;
+        }
+      }
+    }
+
+    if (releaseDelayMs > 0) {
+      if (releaseTimer == null) {
+        releaseTimer = new Timer(releaseDelayMs, e -> releaseHiddenTabs());
+        releaseTimer.setRepeats(false);
+      }
+      releaseTimer.setInitialDelay(releaseDelayMs);
+      releaseTimer.restart();
+    }
+  }
+
+  private void releaseHiddenTabs() {
+    long now = System.currentTimeMillis();
+    long nextCheck = Long.MAX_VALUE;
+    Component selected = getSelectedComponent();
+    for (int i = 0; i < getTabCount(); i++) {
+      Component component = getComponentAt(i);
+      if (component instanceof LazyTab && component != selected) {
+        LazyTab tab = (LazyTab) component;
+        if (tab.content == null) {
+          continue;
+        }
+        long hiddenFor = now - tab.hiddenSince;
+        if (hiddenFor >= releaseDelayMs) {
+          tab.release();
+        } else {
+          nextCheck = Math.min(nextCheck, releaseDelayMs - hiddenFor);
+        }
+      }
+    }
+    if (nextCheck != Long.MAX_VALUE) {
+      releaseTimer.setInitialDelay((int) nextCheck);
+      releaseTimer.restart();
+    }
+  }
+
+  /** Placeholder holding a tab's content once it has been built */
+  private static final class LazyTab extends JPanel {
+    private final Supplier<? extends Component> supplier;
+    private Component content;
+    private long hiddenSince;
+
+    LazyTab(Supplier<? extends Component> supplier) {
+      super(new BorderLayout());
+      this.supplier = supplier;
+      setOpaque(false);
+    }
+
+    void load() {
+      hiddenSince = 0;
+      if (content == null) {
+        content = supplier.get();
+        add(content, BorderLayout.CENTER);
+        revalidate();
+      }
+    }
+
+    void release() {
+      if (content != null) {
+        remove(content);
+        content = null;
+        revalidate();
+      }
+    }
+  }
+
   private class ModernTabbedPaneUI extends BasicTabbedPaneUI {
+    private final List<TextRun> titleRuns = new ArrayList<>();
+
     @Override
     protected void installDefaults() {
       super.installDefaults();
@@ -127,7 +281,6 @@ public class ModernTabbedPane extends JTabbedPane {
       Graphics2D g2d = (Graphics2D) g.create();
       g2d.setRenderingHint(
           RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-      g2d.setFont(font);
 
       if (isSelected) {
         g2d.setColor(selectedTextColor);
@@ -135,10 +288,18 @@ public class ModernTabbedPane extends JTabbedPane {
         g2d.setColor(textColor);
       }
 
-      int textWidth = metrics.stringWidth(title);
-      int textX = textRect.x + (textRect.width - textWidth) / 2;
-      int textY = textRect.y + ((textRect.height - metrics.getHeight()) / 2) + metrics.getAscent();
-      g2d.drawString(title, textX, textY);
+      // Titles are shaped once and kept per tab until the title, font or hints change
+      while (titleRuns.size() <= tabIndex) {
+        titleRuns.add(null);
+      }
+      TextRun run =
+          TextRunCache.shared()
+              .refresh(titleRuns.get(tabIndex), font, title, g2d.getFontRenderContext());
+      titleRuns.set(tabIndex, run);
+      run.draw(
+          g2d,
+          run.centerX(textRect.x, textRect.width),
+          run.centerBaseline(textRect.y, textRect.height));
       g2d.dispose();
     }
   }
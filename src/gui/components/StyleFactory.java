@@ -1,36 +1,160 @@
 package gui.components;
 
 import java.awt.Color;
+import java.awt.Component;
+import java.awt.Container;
 import java.awt.Font;
+import java.awt.Window;
+import java.awt.font.FontRenderContext;
+import java.util.function.BiConsumer;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
 
 /** Factory class for consistent styling across the application */
 public class StyleFactory {
-  // Color scheme - Dark red theme
-  public static final Color ACCENT_COLOR = new Color(220, 40, 40); // Bright red accent
-  public static final Color ACCENT_HOVER_COLOR =
-      new Color(240, 60, 60); // Lighter bright red for hover
-  public static final Color ACCENT_PRESSED_COLOR =
-      new Color(180, 20, 20); // Darker bright red for pressed
-
-  public static final Color BG_DARK_COLOR = new Color(35, 15, 15); // Dark red background
-  public static final Color BG_MEDIUM_COLOR = new Color(45, 20, 20); // Medium red background
-  public static final Color BG_LIGHT_COLOR = new Color(55, 25, 25); // Light red background
-
-  public static final Color TEXT_COLOR = new Color(230, 230, 230); // Light text
-  public static final Color TEXT_SECONDARY_COLOR = new Color(180, 180, 180); // Secondary text
-  public static final Color HEADER_COLOR = new Color(255, 70, 70); // Bright red header text
-
-  public static final Color BORDER_COLOR = new Color(30, 65, 50); // Border color
-  public static final Color DISABLED_COLOR = new Color(100, 100, 100); // Disabled state color
-
-  // Common fonts
-  public static final Font HEADER_FONT = new Font("SansSerif", Font.BOLD, 20);
-  public static final Font BUTTON_FONT = new Font("SansSerif", Font.BOLD, 14);
-  public static final Font LABEL_FONT = new Font("SansSerif", Font.PLAIN, 14);
-  public static final Font SMALL_FONT = new Font("SansSerif", Font.PLAIN, 12);
-
   // Spacing constants
   public static final int PADDING_SMALL = 5;
   public static final int PADDING_MEDIUM = 10;
   public static final int PADDING_LARGE = 15;
+
+  // Fixed colors and fonts of the default theme, kept for code compiled against them. They do not
+  // follow setTheme; read getTheme() instead.
+  /** @deprecated Use {@code getTheme().getAccent()} */
+  @Deprecated public static final Color ACCENT_COLOR = Theme.DARK_RED.getAccent();
+
+  /** @deprecated Use {@code getTheme().getAccentHover()} */
+  @Deprecated public static final Color ACCENT_HOVER_COLOR = Theme.DARK_RED.getAccentHover();
+
+  /** @deprecated Use {@code getTheme().getAccentPressed()} */
+  @Deprecated public static final Color ACCENT_PRESSED_COLOR = Theme.DARK_RED.getAccentPressed();
+
+  /** @deprecated Use {@code getTheme().getBackgroundDark()} */
+  @Deprecated public static final Color BG_DARK_COLOR = Theme.DARK_RED.getBackgroundDark();
+
+  /** @deprecated Use {@code getTheme().getBackgroundMedium()} */
+  @Deprecated public static final Color BG_MEDIUM_COLOR = Theme.DARK_RED.getBackgroundMedium();
+
+  /** @deprecated Use {@code getTheme().getBackgroundLight()} */
+  @Deprecated public static final Color BG_LIGHT_COLOR = Theme.DARK_RED.getBackgroundLight();
+
+  /** @deprecated Use {@code getTheme().getText()} */
+  @Deprecated public static final Color TEXT_COLOR = Theme.DARK_RED.getText();
+
+  /** @deprecated Use {@code getTheme().getTextSecondary()} */
+  @Deprecated public static final Color TEXT_SECONDARY_COLOR = Theme.DARK_RED.getTextSecondary();
+
+  /** @deprecated Use {@code getTheme().getHeader()} */
+  @Deprecated public static final Color HEADER_COLOR = Theme.DARK_RED.getHeader();
+
+  /** @deprecated Use {@code getTheme().getBorder()} */
+  @Deprecated public static final Color BORDER_COLOR = Theme.DARK_RED.getBorder();
+
+  /** @deprecated Use {@code getTheme().getDisabled()} */
+  @Deprecated public static final Color DISABLED_COLOR = Theme.DARK_RED.getDisabled();
+
+  /** @deprecated Use {@code getTheme().getHeaderFont()} */
+  @Deprecated public static final Font HEADER_FONT = Theme.DARK_RED.getHeaderFont();
+
+  /** @deprecated Use {@code getTheme().getButtonFont()} */
+  @Deprecated public static final Font BUTTON_FONT = Theme.DARK_RED.getButtonFont();
+
+  /** @deprecated Use {@code getTheme().getLabelFont()} */
+  @Deprecated public static final Font LABEL_FONT = Theme.DARK_RED.getLabelFont();
+
+  /** @deprecated Use {@code getTheme().getSmallFont()} */
+  @Deprecated public static final Font SMALL_FONT = Theme.DARK_RED.getSmallFont();
+
+  private static final String STYLER_KEY = StyleFactory.class.getName() + ".styler";
+  private static final String PREWARM_TEXT =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789 .,:;|/()-+%?!";
+
+  private static volatile Theme theme = Theme.DARK_RED;
+
+  private StyleFactory() {}
+
+  /**
+   * Gets the current theme
+   *
+   * @return The theme every component is styled with
+   */
+  public static Theme getTheme() {
+    return theme;
+  }
+
+  /**
+   * Switches the theme and restyles every open window in one pass: each themed component copies the
+   * new colors and fonts, then each window is revalidated and repainted once
+   *
+   * @param newTheme The theme to switch to
+   */
+  public static void setTheme(Theme newTheme) {
+    if (!SwingUtilities.isEventDispatchThread()) {
+      SwingUtilities.invokeLater(() -> setTheme(newTheme));
+      return;
+    }
+    if (newTheme == theme) {
+      return;
+    }
+    theme = newTheme;
+    // Sprites of the old theme would only linger until evicted
+    ButtonSpriteCache.shared().clear();
+    for (Window window : Window.getWindows()) {
+      restyle(window, newTheme);
+      window.invalidate();
+      window.validate();
+      window.repaint();
+    }
+  }
+
+  /**
+   * Loads the fonts of the current theme and their glyphs for plain text, which otherwise happens
+   * during the first paint. Safe to call off the EDT.
+   */
+  public static void prewarmFonts() {
+    Theme current = theme;
+    FontRenderContext context = new FontRenderContext(null, true, true);
+    Font[] fonts = {
+      current.getHeaderFont(),
+      current.getTitleFont(),
+      current.getButtonFont(),
+      current.getLabelFont(),
+      current.getSmallFont(),
+      current.getSmallBoldFont(),
+      current.getTinyFont()
+    };
+    for (Font font : fonts) {
+      font.createGlyphVector(context, PREWARM_TEXT).getVisualBounds();
+      font.getLineMetrics(PREWARM_TEXT, context);
+    }
+  }
+
+  /**
+   * Styles a plain Swing component from the current theme now and again after every theme switch
+   *
+   * @param component The component to style
+   * @param styler Copies colors and fonts from the theme onto the component
+   * @return The component, for inline use
+   */
+  public static <T extends JComponent> T bind(T component, BiConsumer<? super T, Theme> styler) {
+    component.putClientProperty(STYLER_KEY, (Themeable) t -> styler.accept(component, t));
+    styler.accept(component, theme);
+    return component;
+  }
+
+  private static void restyle(Component component, Theme newTheme) {
+    if (component instanceof Themeable) {
+      ((Themeable) component).applyTheme(newTheme);
+    }
+    if (component instanceof JComponent) {
+      Object styler = ((JComponent) component).getClientProperty(STYLER_KEY);
+      if (styler instanceof Themeable) {
+        ((Themeable) styler).applyTheme(newTheme);
+      }
+    }
+    if (component instanceof Container) {
+      for (Component child : ((Container) component).getComponents()) {
+        restyle(child, newTheme);
+      }
+    }
+  }
 }
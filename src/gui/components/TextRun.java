@@ -0,0 +1,74 @@
+package gui.components;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.LineMetrics;
+
+/**
+ * A shaped, measured piece of text. Drawing a run only rasterizes its glyphs; layout and
+ * measuring were done once when it was created. Runs come from {@link TextRunCache}.
+ */
+public final class TextRun {
+  private final Font font;
+  private final String text;
+  private final FontRenderContext context;
+  private final GlyphVector glyphs;
+  private final float advance;
+  private final float ascent;
+  private final float descent;
+  private final float leading;
+
+  TextRun(Font font, String text, FontRenderContext context) {
+    this.font = font;
+    this.text = text;
+    this.context = context;
+    this.glyphs = font.createGlyphVector(context, text);
+    this.advance = (float) glyphs.getLogicalBounds().getWidth();
+    LineMetrics metrics = font.getLineMetrics(text, context);
+    this.ascent = metrics.getAscent();
+    this.descent = metrics.getDescent();
+    this.leading = metrics.getLeading();
+  }
+
+  /**
+   * Checks whether this run can be reused for the given text. Cheap enough to call every paint.
+   *
+   * @return true if the run was shaped for the same font, text and render context
+   */
+  public boolean matches(Font font, String text, FontRenderContext context) {
+    return (this.font == font || this.font.equals(font))
+        && (this.text == text || this.text.equals(text))
+        && this.context.equals(context);
+  }
+
+  /**
+   * Draws the run with its baseline at y, using the current color of the graphics
+   *
+   * @param g2d Target graphics
+   * @param x Left edge
+   * @param y Baseline
+   */
+  public void draw(Graphics2D g2d, float x, float y) {
+    g2d.drawGlyphVector(glyphs, x, y);
+  }
+
+  /** @return x that centers the run horizontally in a box */
+  public int centerX(int boxX, int boxWidth) {
+    return boxX + Math.round((boxWidth - advance) / 2);
+  }
+
+  /** @return Baseline y that centers the run's line box vertically in a box */
+  public int centerBaseline(int boxY, int boxHeight) {
+    return boxY + Math.round((boxHeight - (ascent + descent + leading)) / 2 + ascent);
+  }
+
+  public float getAdvance() {
+    return advance;
+  }
+
+  public float getAscent() {
+    return ascent;
+  }
+}
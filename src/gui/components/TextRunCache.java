@@ -0,0 +1,99 @@
+package gui.components;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded LRU cache of {@link TextRun}s keyed by font, text and render context (which carries the
+ * transform and the antialiasing and fractional metrics hints), shared by all components.
+ *
+ * <p>Components should keep the run they got and check it with {@link TextRun#matches} on each
+ * paint, only coming back to the cache when their label, font or hints change. Static labels are
+ * then shaped once and repaints only draw.
+ */
+public final class TextRunCache {
+  static final int MAX_ENTRIES = 256;
+
+  private static final TextRunCache SHARED = new TextRunCache(MAX_ENTRIES);
+
+  private final Map<Key, TextRun> runs;
+
+  TextRunCache(int maxEntries) {
+    runs =
+        new LinkedHashMap<Key, TextRun>(64, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, TextRun> eldest) {
+            return size() > maxEntries;
+          }
+        };
+  }
+
+  /** @return The cache shared by all components */
+  public static TextRunCache shared() {
+    return SHARED;
+  }
+
+  /**
+   * Gets or shapes a text run
+   *
+   * @param font Font to shape with
+   * @param text Text to shape
+   * @param context Render context of the graphics the run will be drawn on
+   * @return The shared run
+   */
+  public synchronized TextRun get(Font font, String text, FontRenderContext context) {
+    Key key = new Key(font, text, context);
+    TextRun run = runs.get(key);
+    if (run == null) {
+      run = new TextRun(font, text, context);
+      runs.put(key, run);
+    }
+    return run;
+  }
+
+  /**
+   * Returns the given run if it still matches, otherwise looks up a new one
+   *
+   * @param current Run held by the caller, may be null
+   * @return A run for the font, text and render context
+   */
+  public TextRun refresh(TextRun current, Font font, String text, FontRenderContext context) {
+    if (current != null && current.matches(font, text, context)) {
+      return current;
+    }
+    return get(font, text, context);
+  }
+
+  synchronized int size() {
+    return runs.size();
+  }
+
+  private static final class Key {
+    final Font font;
+    final String text;
+    final FontRenderContext context;
+
+    Key(Font font, String text, FontRenderContext context) {
+      this.font = font;
+      this.text = text;
+      this.context = context;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return font.equals(other.font) && text.equals(other.text) && context.equals(other.context);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(font, text, context);
+    }
+  }
+}
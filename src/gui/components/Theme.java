@@ -0,0 +1,363 @@
+package gui.components;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable set of colors and fonts used by every component in this package.
+ *
+ * <p>All derived colors (hover, pressed, alpha variants) and fonts are computed once when the theme
+ * is built, so painting code only reads fields. Apply a theme with {@link
+ * StyleFactory#setTheme(Theme)}.
+ */
+public final class Theme {
+  /** The original dark red look */
+  public static final Theme DARK_RED = builder().build();
+
+  /** Dark green variant of {@link #DARK_RED} */
+  public static final Theme DARK_GREEN =
+      builder()
+          .accent(new Color(0, 153, 102), new Color(0, 180, 120), new Color(0, 120, 80))
+          .surfaces(new Color(15, 35, 25), new Color(20, 45, 32), new Color(25, 55, 40))
+          .header(new Color(70, 230, 160))
+          .tabHover(new Color(0, 180, 150))
+          .build();
+
+  /** What a button is for; each role has its own palette */
+  public enum Role {
+    ACCENT,
+    SUCCESS,
+    INFO,
+    NEUTRAL,
+    DANGER,
+    SURFACE
+  }
+
+  private final Color backgroundDark;
+  private final Color backgroundMedium;
+  private final Color backgroundLight;
+  private final Color text;
+  private final Color textSecondary;
+  private final Color header;
+  private final Color border;
+  private final Color disabled;
+  private final Color onAccent;
+  private final Color tabHover;
+  private final Color overlayBackground;
+  private final Color highlight;
+  private final Color shadow;
+  private final Map<Role, Palette> palettes;
+
+  private final Font headerFont;
+  private final Font titleFont;
+  private final Font buttonFont;
+  private final Font labelFont;
+  private final Font smallFont;
+  private final Font smallBoldFont;
+  private final Font tinyFont;
+
+  private Theme(Builder builder) {
+    backgroundDark = builder.backgroundDark;
+    backgroundMedium = builder.backgroundMedium;
+    backgroundLight = builder.backgroundLight;
+    text = builder.text;
+    textSecondary = builder.textSecondary;
+    header = builder.header;
+    border = builder.border;
+    disabled = builder.disabled;
+    onAccent = builder.onAccent;
+    tabHover = builder.tabHover;
+    overlayBackground = withAlpha(backgroundDark, 210);
+    highlight = withAlpha(onAccent, 100);
+    shadow = new Color(0, 0, 0, 30);
+
+    palettes = new EnumMap<>(Role.class);
+    palettes.put(Role.ACCENT, builder.accent);
+    palettes.put(Role.SUCCESS, builder.success);
+    palettes.put(Role.INFO, builder.info);
+    palettes.put(Role.NEUTRAL, builder.neutral);
+    palettes.put(Role.DANGER, builder.danger);
+    palettes.put(
+        Role.SURFACE, new Palette(backgroundMedium, backgroundLight, backgroundDark, text));
+
+    String family = builder.fontFamily;
+    headerFont = new Font(family, Font.BOLD, 20);
+    titleFont = new Font(family, Font.BOLD, 16);
+    buttonFont = new Font(family, Font.BOLD, 14);
+    labelFont = new Font(family, Font.PLAIN, 14);
+    smallFont = new Font(family, Font.PLAIN, 12);
+    smallBoldFont = smallFont.deriveFont(Font.BOLD);
+    tinyFont = new Font(family, Font.PLAIN, 10);
+  }
+
+  /**
+   * Starts a theme from the {@link #DARK_RED} colors
+   *
+   * @return A new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public Color getBackgroundDark() {
+    return backgroundDark;
+  }
+
+  public Color getBackgroundMedium() {
+    return backgroundMedium;
+  }
+
+  public Color getBackgroundLight() {
+    return backgroundLight;
+  }
+
+  public Color getText() {
+    return text;
+  }
+
+  public Color getTextSecondary() {
+    return textSecondary;
+  }
+
+  public Color getHeader() {
+    return header;
+  }
+
+  public Color getBorder() {
+    return border;
+  }
+
+  public Color getDisabled() {
+    return disabled;
+  }
+
+  /** Text and icon color drawn on top of accent colors */
+  public Color getOnAccent() {
+    return onAccent;
+  }
+
+  public Color getTabHover() {
+    return tabHover;
+  }
+
+  /** Translucent dark background for the in-game overlay */
+  public Color getOverlayBackground() {
+    return overlayBackground;
+  }
+
+  /** Translucent light color for glossy highlights */
+  public Color getHighlight() {
+    return highlight;
+  }
+
+  /** Translucent dark color for soft outlines */
+  public Color getShadow() {
+    return shadow;
+  }
+
+  public Color getAccent() {
+    return palettes.get(Role.ACCENT).getBase();
+  }
+
+  public Color getAccentHover() {
+    return palettes.get(Role.ACCENT).getHover();
+  }
+
+  public Color getAccentPressed() {
+    return palettes.get(Role.ACCENT).getPressed();
+  }
+
+  /**
+   * Gets the palette for a button role
+   *
+   * @param role The role
+   * @return Its palette
+   */
+  public Palette getPalette(Role role) {
+    return palettes.get(role);
+  }
+
+  public Font getHeaderFont() {
+    return headerFont;
+  }
+
+  public Font getTitleFont() {
+    return titleFont;
+  }
+
+  public Font getButtonFont() {
+    return buttonFont;
+  }
+
+  public Font getLabelFont() {
+    return labelFont;
+  }
+
+  public Font getSmallFont() {
+    return smallFont;
+  }
+
+  public Font getSmallBoldFont() {
+    return smallBoldFont;
+  }
+
+  public Font getTinyFont() {
+    return tinyFont;
+  }
+
+  private static Color withAlpha(Color color, int alpha) {
+    return new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha);
+  }
+
+  /** Base, hover and pressed colors of one button role, plus the text drawn on them */
+  public static final class Palette {
+    private final Color base;
+    private final Color hover;
+    private final Color pressed;
+    private final Color text;
+    private final ColorRamp hoverRamp;
+
+    /**
+     * Creates a palette with explicit state colors
+     *
+     * @param base Normal state color
+     * @param hover Hover state color
+     * @param pressed Pressed state color
+     * @param text Text color
+     */
+    public Palette(Color base, Color hover, Color pressed, Color text) {
+      this.base = base;
+      this.hover = hover;
+      this.pressed = pressed;
+      this.text = text;
+      this.hoverRamp = ColorRamp.hsb(base, hover);
+    }
+
+    public Color getBase() {
+      return base;
+    }
+
+    public Color getHover() {
+      return hover;
+    }
+
+    public Color getPressed() {
+      return pressed;
+    }
+
+    public Color getText() {
+      return text;
+    }
+
+    ColorRamp getHoverRamp() {
+      return hoverRamp;
+    }
+  }
+
+  /** Collects the base colors of a theme; everything else is derived in {@link #build()} */
+  public static final class Builder {
+    private Palette accent =
+        new Palette(
+            new Color(220, 40, 40), new Color(240, 60, 60), new Color(180, 20, 20), Color.WHITE);
+    private Palette success =
+        new Palette(
+            new Color(0, 153, 102), new Color(0, 180, 120), new Color(0, 120, 80), Color.WHITE);
+    private Palette info =
+        new Palette(
+            new Color(0, 153, 153), new Color(0, 180, 180), new Color(0, 120, 120), Color.WHITE);
+    private Palette neutral =
+        new Palette(
+            new Color(150, 150, 150),
+            new Color(180, 180, 180),
+            new Color(120, 120, 120),
+            Color.WHITE);
+    private Palette danger =
+        new Palette(
+            new Color(160, 30, 30), new Color(180, 40, 40), new Color(140, 20, 20), Color.WHITE);
+    private Color backgroundDark = new Color(35, 15, 15);
+    private Color backgroundMedium = new Color(45, 20, 20);
+    private Color backgroundLight = new Color(55, 25, 25);
+    private Color text = new Color(230, 230, 230);
+    private Color textSecondary = new Color(180, 180, 180);
+    private Color header = new Color(255, 70, 70);
+    private Color border = new Color(30, 65, 50);
+    private Color disabled = new Color(100, 100, 100);
+    private Color onAccent = Color.WHITE;
+    private Color tabHover = new Color(0, 180, 150);
+    private String fontFamily = "SansSerif";
+
+    private Builder() {}
+
+    public Builder accent(Color base, Color hover, Color pressed) {
+      accent = new Palette(base, hover, pressed, onAccent);
+      return this;
+    }
+
+    public Builder palette(Role role, Palette palette) {
+      switch (role) {
+        case ACCENT:
+          accent = palette;
+          break;
+        case SUCCESS:
+          success = palette;
+          break;
+        case INFO:
+          info = palette;
+          break;
+        case NEUTRAL:
+          neutral = palette;
+          break;
+        case DANGER:
+          danger = palette;
+          break;
+        case SURFACE:
+          throw new IllegalArgumentException("The surface palette is derived from the surfaces");
+      }
+      return this;
+    }
+
+    public Builder surfaces(Color dark, Color medium, Color light) {
+      backgroundDark = dark;
+      backgroundMedium = medium;
+      backgroundLight = light;
+      return this;
+    }
+
+    public Builder text(Color primary, Color secondary) {
+      text = primary;
+      textSecondary = secondary;
+      return this;
+    }
+
+    public Builder header(Color color) {
+      header = color;
+      return this;
+    }
+
+    public Builder border(Color color) {
+      border = color;
+      return this;
+    }
+
+    public Builder disabled(Color color) {
+      disabled = color;
+      return this;
+    }
+
+    public Builder tabHover(Color color) {
+      tabHover = color;
+      return this;
+    }
+
+    public Builder fontFamily(String family) {
+      fontFamily = family;
+      return this;
+    }
+
+    public Theme build() {
+      return new Theme(this);
+    }
+  }
+}
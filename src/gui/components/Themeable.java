@@ -0,0 +1,16 @@
+package gui.components;
+
+/**
+ * Component that takes its colors and fonts from the current {@link Theme}.
+ *
+ * <p>Implementations only copy what they need from the theme; {@link StyleFactory#setTheme(Theme)}
+ * revalidates and repaints the whole window once afterwards.
+ */
+public interface Themeable {
+  /**
+   * Restyles this component, called on the EDT
+   *
+   * @param theme The new theme
+   */
+  void applyTheme(Theme theme);
+}
@@ -3,6 +3,7 @@ package gui.components;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.font.FontRenderContext;
 import java.util.ArrayList;
 import java.util.List;
 import javax.swing.*;
@@ -13,23 +14,31 @@ import javax.swing.event.ChangeListener;
  * Modern toggle switch component that provides ON/OFF functionality with animation and custom
  * styling
  */
-public class ToggleSwitch extends JPanel {
+public class ToggleSwitch extends JPanel implements Themeable {
+  private static final int ANIMATION_MS = 200;
+
   private final int width = 80;
   private final int height = 30;
-  private final Color selectedColor = StyleFactory.ACCENT_COLOR;
-  private final Color disabledColor = StyleFactory.DISABLED_COLOR;
-  private final Color backgroundColor = StyleFactory.BG_DARK_COLOR;
-  private final Color knobColor = Color.WHITE;
   private final List<ChangeListener> changeListeners = new ArrayList<>();
+  private Color disabledColor;
+  private Color knobColor;
+  private Color knobShadowColor;
+  private Font labelFont;
+  // Shared lookup tables, so animation frames allocate no colors
+  private ColorRamp trackRamp;
+  private ColorRamp textRamp;
+  private final AnimationClock.Animation animation =
+      AnimationClock.get().create(this, ANIMATION_MS, value -> position = value);
   private boolean selected;
   private boolean animated;
   private float position;
-  private Timer animationTimer;
+  private TextRun onRun;
+  private TextRun offRun;
 
   /** Creates a new toggle switch component */
   public ToggleSwitch() {
     setPreferredSize(new Dimension(width, height));
-    setBackground(StyleFactory.BG_MEDIUM_COLOR);
+    applyTheme(StyleFactory.getTheme());
     setCursor(new Cursor(Cursor.HAND_CURSOR));
     position = 0.0f;
     animated = true;
@@ -104,52 +113,23 @@ public class ToggleSwitch extends JPanel {
 
   /** Animates the toggle between states */
   private void animateToggle() {
-    if (animationTimer != null && animationTimer.isRunning()) {
-      animationTimer.stop();
-    }
-
-    if (!animated) {
-      position = selected ? 1.0f : 0.0f;
-      repaint();
-      return;
-    }
-
-    final float targetPosition = selected ? 1.0f : 0.0f;
-    final float initialPosition = position;
-    final float distance = Math.abs(targetPosition - initialPosition);
-    final int steps = (int) (distance * 10); // Number of animation steps
-
-    if (steps == 0) {
-      position = targetPosition;
-      repaint();
-      return;
+    float target = selected ? 1.0f : 0.0f;
+    if (animated) {
+      animation.animateTo(target);
+    } else {
+      animation.jumpTo(target);
     }
+  }
 
-    final int animationDuration = 200; // ms
-    final int delay = animationDuration / steps;
-
-    animationTimer =
-        new Timer(
-            delay,
-            e -> {
-              // Calculate position based on animation progress
-              if (selected) {
-                position += 0.1f;
-                if (position >= 1.0f) {
-                  position = 1.0f;
-                  animationTimer.stop();
-                }
-              } else {
-                position -= 0.1f;
-                if (position <= 0.0f) {
-                  position = 0.0f;
-                  animationTimer.stop();
-                }
-              }
-              repaint();
-            });
-
-    animationTimer.start();
+  @Override
+  public void applyTheme(Theme theme) {
+    setBackground(theme.getBackgroundMedium());
+    disabledColor = theme.getDisabled();
+    knobColor = theme.getOnAccent();
+    knobShadowColor = theme.getShadow();
+    labelFont = theme.getSmallBoldFont();
+    trackRamp = ColorRamp.hsb(theme.getBackgroundDark(), theme.getAccent());
+    textRamp = ColorRamp.alpha(theme.getOnAccent());
   }
 
   @Override
@@ -173,8 +153,7 @@ public class ToggleSwitch extends JPanel {
 
     // Background track based on state
     if (isEnabled()) {
-      Color trackColor = interpolateColor(backgroundColor, selectedColor, position);
-      g2d.setColor(trackColor);
+      g2d.setColor(trackRamp.at(position));
     } else {
       g2d.setColor(disabledColor);
     }
@@ -182,21 +161,18 @@ public class ToggleSwitch extends JPanel {
     // Draw rounded background track
     g2d.fillRoundRect(1, 4, toggleWidth, toggleHeight, arcSize, arcSize);
 
-    // Draw ON/OFF text
-    g2d.setFont(new Font("SansSerif", Font.BOLD, 12));
-    g2d.setColor(Color.WHITE);
-
-    // Calculate text opacity based on position
-    int onOpacity = (int) (position * 255);
-    int offOpacity = 255 - onOpacity;
+    // Draw ON/OFF text, fading with the position
+    FontRenderContext context = g2d.getFontRenderContext();
+    onRun = TextRunCache.shared().refresh(onRun, labelFont, "ON", context);
+    offRun = TextRunCache.shared().refresh(offRun, labelFont, "OFF", context);
 
     // Draw ON text
-    g2d.setColor(new Color(255, 255, 255, onOpacity));
-    g2d.drawString("ON", 15, height / 2 + 5);
+    g2d.setColor(textRamp.at(position));
+    onRun.draw(g2d, 15, height / 2 + 5);
 
     // Draw OFF text
-    g2d.setColor(new Color(255, 255, 255, offOpacity));
-    g2d.drawString("OFF", width - 40, height / 2 + 5);
+    g2d.setColor(textRamp.at(1.0f - position));
+    offRun.draw(g2d, width - 40, height / 2 + 5);
 
     // Calculate knob position
     int knobDiameter = toggleHeight - 4;
@@ -208,21 +184,9 @@ public class ToggleSwitch extends JPanel {
     g2d.fillOval(knobX, knobY, knobDiameter, knobDiameter);
 
     // Draw knob shadow
-    g2d.setColor(new Color(0, 0, 0, 30));
+    g2d.setColor(knobShadowColor);
     g2d.drawOval(knobX, knobY, knobDiameter, knobDiameter);
 
     g2d.dispose();
   }
-
-  /** Interpolates between two colors based on a position (0.0 to 1.0) */
-  private Color interpolateColor(Color from, Color to, float position) {
-    float[] fromHSB = Color.RGBtoHSB(from.getRed(), from.getGreen(), from.getBlue(), null);
-    float[] toHSB = Color.RGBtoHSB(to.getRed(), to.getGreen(), to.getBlue(), null);
-
-    float h = fromHSB[0] + (toHSB[0] - fromHSB[0]) * position;
-    float s = fromHSB[1] + (toHSB[1] - fromHSB[1]) * position;
-    float b = fromHSB[2] + (toHSB[2] - fromHSB[2]) * position;
-
-    return Color.getHSBColor(h, s, b);
-  }
 }
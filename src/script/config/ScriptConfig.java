@@ -0,0 +1,158 @@
+package script.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Immutable start-up settings of the script.
+ *
+ * <p>Settings are merged from, in increasing priority: built-in defaults, the properties file at
+ * {@code ~/DreamBot/Scripts/XPE/xpe.properties} (or the path in the {@code xpe.config} system
+ * property) and the script parameters. Parameters are {@code key=value} pairs; a bare key such as
+ * {@code headless} means {@code key=true}. Nothing here touches AWT or Swing, so a headless run
+ * never loads them.
+ */
+public final class ScriptConfig {
+  public static final String KEY_HEADLESS = "headless";
+  public static final String KEY_POTION = "potion";
+  public static final String KEY_DYNAMIC_MOUSE = "dynamicMouse";
+  public static final String KEY_REACTION = "reaction";
+  public static final String KEY_JOBS = "jobs";
+  public static final String KEY_PIPELINE = "pipeline";
+
+  private static final String FILE_PROPERTY = "xpe.config";
+
+  private final boolean headless;
+  private final String potion;
+  private final boolean dynamicMouse;
+  private final String reaction;
+  private final String jobs;
+  private final boolean pipeline;
+  private final Path source;
+
+  private ScriptConfig(Properties properties, Path source) {
+    this.headless = Boolean.parseBoolean(properties.getProperty(KEY_HEADLESS, "false").trim());
+    String value = properties.getProperty(KEY_POTION);
+    this.potion = value == null || value.trim().isEmpty() ? null : value.trim();
+    this.dynamicMouse =
+        Boolean.parseBoolean(properties.getProperty(KEY_DYNAMIC_MOUSE, "false").trim());
+    this.reaction = properties.getProperty(KEY_REACTION, "normal").trim();
+    String jobList = properties.getProperty(KEY_JOBS);
+    this.jobs = jobList == null || jobList.trim().isEmpty() ? null : jobList.trim();
+    this.pipeline = Boolean.parseBoolean(properties.getProperty(KEY_PIPELINE, "true").trim());
+    this.source = source;
+  }
+
+  /**
+   * Loads the configuration from the config file, if there is one, and the script parameters
+   *
+   * @param params Script parameters, may be empty
+   * @return The merged configuration
+   * @throws IOException If the config file exists but cannot be read
+   */
+  public static ScriptConfig load(String... params) throws IOException {
+    Path file = configFile();
+    Properties properties = new Properties();
+    Path source = null;
+    if (Files.isRegularFile(file)) {
+      try (InputStream in = Files.newInputStream(file)) {
+        properties.load(in);
+      }
+      source = file;
+    }
+    if (params != null) {
+      for (String param : params) {
+        apply(properties, param);
+      }
+    }
+    return new ScriptConfig(properties, source);
+  }
+
+  /** @return Whether to run without any GUI */
+  public boolean isHeadless() {
+    return headless;
+  }
+
+  /** @return Name of the potion to make, or null if none was configured */
+  public String getPotion() {
+    return potion;
+  }
+
+  /** @return Whether the dynamic mouse speed is enabled */
+  public boolean isDynamicMouse() {
+    return dynamicMouse;
+  }
+
+  /** @return Name of the reaction delay profile, {@code normal} by default */
+  public String getReaction() {
+    return reaction;
+  }
+
+  /**
+   * @return Job queue written as {@code name[:potions]|...}, or null if none was configured. Takes
+   *     precedence over {@link #getPotion()}.
+   */
+  public String getJobs() {
+    return jobs;
+  }
+
+  /** @return Whether the engine pipelines its clicks, on by default */
+  public boolean isPipeline() {
+    return pipeline;
+  }
+
+  /** @return The config file that was read, or null if none was */
+  public Path getSource() {
+    return source;
+  }
+
+  @Override
+  public String toString() {
+    return "headless="
+        + headless
+        + ", potion="
+        + potion
+        + ", dynamicMouse="
+        + dynamicMouse
+        + ", reaction="
+        + reaction
+        + ", jobs="
+        + jobs
+        + ", pipeline="
+        + pipeline
+        + (source != null ? " (from " + source + ")" : "");
+  }
+
+  private static void apply(Properties properties, String param) {
+    if (param == null) {
+      return;
+    }
+    // Quick start may pass several settings in one argument
+    for (String part : param.split("[;,]")) {
+      String setting = part.trim();
+      if (setting.isEmpty()) {
+        continue;
+      }
+      int equals = setting.indexOf('=');
+      if (equals < 0) {
+        properties.setProperty(setting, "true");
+      } else {
+        properties.setProperty(
+            setting.substring(0, equals).trim(), setting.substring(equals + 1).trim());
+      }
+    }
+  }
+
+  private static Path configFile() {
+    String path = System.getProperty(FILE_PROPERTY);
+    if (path != null) {
+      return Paths.get(path);
+    }
+    String home = System.getProperty("user.home");
+    return Paths.get(home, "DreamBot", "Scripts", "XPE", "xpe.properties");
+  }
+}
@@ -0,0 +1,69 @@
+package script.control;
+
+import script.herblore.Job;
+import script.herblore.Recipe;
+
+/** A user request queued for the script thread */
+final class Command {
+  enum Type {
+    START,
+    STOP,
+    SELECT_RECIPE,
+    SET_DYNAMIC_MOUSE,
+    ADD_JOB,
+    CLEAR_JOBS,
+    START_QUEUE
+  }
+
+  static final Command STOP = new Command(Type.STOP, null, null, false);
+  static final Command MOUSE_ON = new Command(Type.SET_DYNAMIC_MOUSE, null, null, true);
+  static final Command MOUSE_OFF = new Command(Type.SET_DYNAMIC_MOUSE, null, null, false);
+  static final Command CLEAR_JOBS = new Command(Type.CLEAR_JOBS, null, null, false);
+  static final Command START_QUEUE = new Command(Type.START_QUEUE, null, null, false);
+
+  final Type type;
+  final Recipe recipe;
+  final Job job;
+  final boolean enabled;
+
+  private Command(Type type, Recipe recipe, Job job, boolean enabled) {
+    this.type = type;
+    this.recipe = recipe;
+    this.job = job;
+    this.enabled = enabled;
+  }
+
+  static Command start(Recipe recipe) {
+    return new Command(Type.START, recipe, null, false);
+  }
+
+  static Command selectRecipe(Recipe recipe) {
+    return new Command(Type.SELECT_RECIPE, recipe, null, false);
+  }
+
+  static Command addJob(Job job) {
+    return new Command(Type.ADD_JOB, null, job, false);
+  }
+
+  /** @return The state after applying this command to {@code state} */
+  ControlState applyTo(ControlState state) {
+    switch (type) {
+      case START:
+        return state.started(recipe);
+      case STOP:
+        return state.stopped();
+      case SELECT_RECIPE:
+        return state.withRecipe(recipe);
+      case SET_DYNAMIC_MOUSE:
+        return state.withDynamicMouse(enabled);
+      case ADD_JOB:
+        return state.withJob(job);
+      case CLEAR_JOBS:
+        return state.withoutJobs();
+      case START_QUEUE:
+        return state.startedQueue();
+      default:
+        throw new AssertionError(type);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package script.control;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free single-producer, single-consumer ring of commands.
+ *
+ * <p>The producer writes a slot and then publishes it by advancing the tail; the consumer reads it
+ * and frees it by advancing the head. Neither side ever blocks: {@link #offer} fails when the ring
+ * is full and {@link #poll} returns null when it is empty.
+ */
+final class CommandQueue {
+  private final Command[] slots;
+  private final int mask;
+  // Next slot to read, only advanced by the consumer
+  private final AtomicLong head = new AtomicLong();
+  // Next slot to write, only advanced by the producer
+  private final AtomicLong tail = new AtomicLong();
+
+  /** @param capacity Number of slots, rounded up to a power of two */
+  CommandQueue(int capacity) {
+    int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+    slots = new Command[size];
+    mask = size - 1;
+  }
+
+  /**
+   * Queues a command; producer thread only
+   *
+   * @param command The command
+   * @return False if the queue is full
+   */
+  boolean offer(Command command) {
+    long t = tail.get();
+    if (t - head.get() == slots.length) {
+      return false;
+    }
+    slots[(int) t & mask] = command;
+    tail.lazySet(t + 1);
+    return true;
+  }
+
+  /**
+   * Takes the oldest command; consumer thread only
+   *
+   * @return The command, or null if the queue is empty
+   */
+  Command poll() {
+    long h = head.get();
+    if (h == tail.get()) {
+      return null;
+    }
+    int index = (int) h & mask;
+    Command command = slots[index];
+    slots[index] = null;
+    head.lazySet(h + 1);
+    return command;
+  }
+}
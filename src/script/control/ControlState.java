@@ -0,0 +1,132 @@
+package script.control;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import script.herblore.Job;
+import script.herblore.Recipe;
+
+/**
+ * Immutable snapshot of what the user asked the script to do: the selected recipe, the queued
+ * jobs, whether it should be running and whether the dynamic mouse is on.
+ *
+ * <p>Every start request gets a new generation, so starting the same recipe again after the engine
+ * has finished is still seen as a change. A queue run works through the jobs as they were when it
+ * was started; editing the queue afterwards only affects the next run.
+ */
+public final class ControlState {
+  /** Nothing selected, not running */
+  public static final ControlState INITIAL =
+      new ControlState(false, null, Collections.emptyList(), false, false, 0);
+
+  private final boolean running;
+  private final Recipe recipe;
+  private final List<Job> jobs;
+  private final boolean queueRun;
+  private final boolean dynamicMouse;
+  private final long generation;
+
+  private ControlState(
+      boolean running,
+      Recipe recipe,
+      List<Job> jobs,
+      boolean queueRun,
+      boolean dynamicMouse,
+      long generation) {
+    this.running = running;
+    this.recipe = recipe;
+    this.jobs = jobs;
+    this.queueRun = queueRun;
+    this.dynamicMouse = dynamicMouse;
+    this.generation = generation;
+  }
+
+  /** @return Whether crafting was requested */
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** @return The selected recipe, or null if none was selected yet */
+  public Recipe getRecipe() {
+    return recipe;
+  }
+
+  /** @return The queued jobs, unmodifiable */
+  public List<Job> getJobs() {
+    return jobs;
+  }
+
+  /** @return Whether the last start request was for the job queue rather than the recipe */
+  public boolean isQueueRun() {
+    return queueRun;
+  }
+
+  /** @return Whether the dynamic mouse speed is enabled */
+  public boolean isDynamicMouse() {
+    return dynamicMouse;
+  }
+
+  /** @return Number of start requests so far */
+  public long getGeneration() {
+    return generation;
+  }
+
+  ControlState started(Recipe recipe) {
+    return new ControlState(true, recipe, jobs, false, dynamicMouse, generation + 1);
+  }
+
+  ControlState startedQueue() {
+    return jobs.isEmpty()
+        ? this
+        : new ControlState(true, recipe, jobs, true, dynamicMouse, generation + 1);
+  }
+
+  ControlState stopped() {
+    return running
+        ? new ControlState(false, recipe, jobs, queueRun, dynamicMouse, generation)
+        : this;
+  }
+
+  ControlState withRecipe(Recipe recipe) {
+    return recipe == this.recipe
+        ? this
+        : new ControlState(running, recipe, jobs, queueRun, dynamicMouse, generation);
+  }
+
+  ControlState withJob(Job job) {
+    List<Job> added = new ArrayList<>(jobs.size() + 1);
+    added.addAll(jobs);
+    added.add(job);
+    return new ControlState(
+        running, recipe, Collections.unmodifiableList(added), queueRun, dynamicMouse, generation);
+  }
+
+  ControlState withoutJobs() {
+    return jobs.isEmpty()
+        ? this
+        : new ControlState(
+            running, recipe, Collections.emptyList(), queueRun, dynamicMouse, generation);
+  }
+
+  ControlState withDynamicMouse(boolean dynamicMouse) {
+    return dynamicMouse == this.dynamicMouse
+        ? this
+        : new ControlState(running, recipe, jobs, queueRun, dynamicMouse, generation);
+  }
+
+  @Override
+  public String toString() {
+    return "running="
+        + running
+        + ", recipe="
+        + recipe
+        + ", jobs="
+        + jobs
+        + ", queueRun="
+        + queueRun
+        + ", dynamicMouse="
+        + dynamicMouse
+        + ", generation="
+        + generation;
+  }
+}
@@ -0,0 +1,163 @@
+package script.control;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import script.herblore.Job;
+import script.herblore.Recipe;
+import script.metrics.Counter;
+import script.metrics.Metrics;
+
+/**
+ * Hands user requests from the GUI (or the start-up code in headless mode) to the script thread
+ * without locks.
+ *
+ * <p>Requests go into a single-producer, single-consumer queue, so they must all come from one
+ * thread at a time, normally the EDT. The script thread calls {@link #drain()} once per loop
+ * iteration, which applies the queued requests and publishes the resulting {@link ControlState};
+ * any thread can read the latest snapshot with {@link #getState()}. Neither side blocks or calls
+ * into the other. The requesting thread sees its own job list right away through {@link
+ * #getOfferedJobs()}, before the script thread has drained it.
+ */
+public final class ScriptControl {
+  static final int QUEUE_CAPACITY = 64;
+
+  private static final Counter COMMANDS = Metrics.counter("control.commands");
+  private static final Counter DROPPED = Metrics.counter("control.dropped");
+
+  private final CommandQueue commands = new CommandQueue(QUEUE_CAPACITY);
+  private final AtomicReference<ControlState> state = new AtomicReference<>(ControlState.INITIAL);
+  // Written by the requesting thread only
+  private volatile List<Job> offeredJobs = Collections.emptyList();
+
+  /**
+   * Requests crafting the given recipe, restarting if something is already being crafted
+   *
+   * @param recipe The recipe to craft
+   * @return False if the request was dropped because the queue is full
+   */
+  public boolean start(Recipe recipe) {
+    return offer(Command.start(recipe));
+  }
+
+  /**
+   * Requests crafting to stop
+   *
+   * @return False if the request was dropped because the queue is full
+   */
+  public boolean stop() {
+    return offer(Command.STOP);
+  }
+
+  /**
+   * Selects the recipe, switching to it right away if crafting is running
+   *
+   * @param recipe The recipe
+   * @return False if the request was dropped because the queue is full
+   */
+  public boolean selectRecipe(Recipe recipe) {
+    return offer(Command.selectRecipe(recipe));
+  }
+
+  /**
+   * Appends a job to the queue
+   *
+   * @param job The job
+   * @return False if the request was dropped because the queue is full
+   */
+  public boolean addJob(Job job) {
+    if (!offer(Command.addJob(job))) {
+      return false;
+    }
+    List<Job> added = new ArrayList<>(offeredJobs.size() + 1);
+    added.addAll(offeredJobs);
+    added.add(job);
+    offeredJobs = Collections.unmodifiableList(added);
+    return true;
+  }
+
+  /**
+   * Empties the job queue; a queue run already in progress carries on
+   *
+   * @return False if the request was dropped because the queue is full
+   */
+  public boolean clearJobs() {
+    if (!offer(Command.CLEAR_JOBS)) {
+      return false;
+    }
+    offeredJobs = Collections.emptyList();
+    return true;
+  }
+
+  /**
+   * Requests working through the queued jobs, restarting if something is already being crafted.
+   * Does nothing if the queue is empty.
+   *
+   * @return False if the request was dropped because the queue is full
+   */
+  public boolean startQueue() {
+    return offer(Command.START_QUEUE);
+  }
+
+  /**
+   * Turns the dynamic mouse speed on or off
+   *
+   * @param enabled Whether it should be on
+   * @return False if the request was dropped because the queue is full
+   */
+  public boolean setDynamicMouse(boolean enabled) {
+    return offer(enabled ? Command.MOUSE_ON : Command.MOUSE_OFF);
+  }
+
+  /**
+   * @return The job list as of the last request offered, including requests not drained yet,
+   *     unmodifiable
+   */
+  public List<Job> getOfferedJobs() {
+    return offeredJobs;
+  }
+
+  /** @return The state as of the last {@link #drain()} */
+  public ControlState getState() {
+    return state.get();
+  }
+
+  /**
+   * Applies all queued requests and publishes the result; script thread only
+   *
+   * @return The new state, the same instance as before if nothing changed
+   */
+  public ControlState drain() {
+    ControlState current = state.get();
+    ControlState next = current;
+    for (Command command = commands.poll(); command != null; command = commands.poll()) {
+      next = command.applyTo(next);
+    }
+    if (next != current) {
+      state.set(next);
+    }
+    return next;
+  }
+
+  /**
+   * Records that crafting has ended without a stop request, e.g. because the supplies ran out;
+   * script thread only. Requests still queued are applied on top by the next {@link #drain()}.
+   *
+   * @return The new state
+   */
+  public ControlState finished() {
+    ControlState next = state.get().stopped();
+    state.set(next);
+    return next;
+  }
+
+  private boolean offer(Command command) {
+    if (commands.offer(command)) {
+      COMMANDS.increment();
+      return true;
+    }
+    DROPPED.increment();
+    return false;
+  }
+}
@@ -0,0 +1,91 @@
+package script.game;
+
+import java.util.List;
+import org.dreambot.api.methods.container.impl.Inventory;
+import org.dreambot.api.methods.container.impl.bank.Bank;
+import org.dreambot.api.methods.interactive.Players;
+import org.dreambot.api.methods.skills.Skill;
+import org.dreambot.api.methods.skills.Skills;
+import org.dreambot.api.methods.widget.helpers.ItemProcessing;
+import org.dreambot.api.wrappers.interactive.Player;
+import org.dreambot.api.wrappers.items.Item;
+
+/** {@link GameApi} backed by the DreamBot client */
+public final class DreamBotGame implements GameApi {
+  @Override
+  public boolean isBankOpen() {
+    return Bank.isOpen();
+  }
+
+  @Override
+  public boolean openBank() {
+    return Bank.open();
+  }
+
+  @Override
+  public boolean closeBank() {
+    return Bank.close();
+  }
+
+  @Override
+  public boolean depositAll() {
+    return Bank.depositAllItems();
+  }
+
+  @Override
+  public boolean withdraw(int itemId, int amount) {
+    return Bank.withdraw(itemId, amount);
+  }
+
+  @Override
+  public void readInventory(int[] ids, int[] amounts) {
+    for (int slot = 0; slot < INVENTORY_SLOTS; slot++) {
+      Item item = Inventory.getItemInSlot(slot);
+      ids[slot] = item == null ? EMPTY : item.getID();
+      amounts[slot] = item == null ? 0 : item.getAmount();
+    }
+  }
+
+  @Override
+  public int readBank(int[] ids, int[] amounts) {
+    if (!Bank.isOpen()) {
+      return -1;
+    }
+    List<Item> items = Bank.all();
+    int size = Math.min(items.size(), ids.length);
+    for (int slot = 0; slot < size; slot++) {
+      Item item = items.get(slot);
+      ids[slot] = item == null ? EMPTY : item.getID();
+      amounts[slot] = item == null ? 0 : item.getAmount();
+    }
+    return size;
+  }
+
+  @Override
+  public boolean useItemOn(int itemId, int targetId) {
+    Item item = Inventory.get(itemId);
+    Item target = Inventory.get(targetId);
+    return item != null && target != null && item.useOn(target);
+  }
+
+  @Override
+  public boolean isMakeAllOpen() {
+    return ItemProcessing.isOpen();
+  }
+
+  @Override
+  public boolean makeAll(String productName) {
+    return ItemProcessing.makeAll(productName);
+  }
+
+  @Override
+  public boolean isAnimating() {
+    Player local = Players.getLocal();
+    return local != null && local.isAnimating();
+  }
+
+  @Override
+  public int getHerbloreExperience() {
+    return Skills.getExperience(Skill.HERBLORE);
+  }
+}
@@ -0,0 +1,73 @@
+package script.game;
+
+/**
+ * The parts of the game the herblore script reads and acts on.
+ *
+ * <p>{@link DreamBotGame} forwards to the client; the simulator in {@code script.sim} implements
+ * the same calls on a virtual clock, so the script logic can run without a client. Actions only
+ * request an interaction and return whether it was sent; their effect shows up on a later tick.
+ */
+public interface GameApi {
+  int INVENTORY_SLOTS = 28;
+
+  /** Item ID of an empty slot */
+  int EMPTY = -1;
+
+  boolean isBankOpen();
+
+  boolean openBank();
+
+  boolean closeBank();
+
+  boolean depositAll();
+
+  /**
+   * @param itemId Item to withdraw
+   * @param amount How many to withdraw
+   * @return Whether the withdraw was sent
+   */
+  boolean withdraw(int itemId, int amount);
+
+  /**
+   * Copies the inventory, one entry per slot
+   *
+   * @param ids Receives the item ID per slot, {@link #EMPTY} for an empty slot
+   * @param amounts Receives the stack size per slot, 0 for an empty slot
+   */
+  void readInventory(int[] ids, int[] amounts);
+
+  /**
+   * Copies the bank, one entry per slot, as far as the arrays reach
+   *
+   * @param ids Receives the item ID per slot
+   * @param amounts Receives the amount per slot
+   * @return Number of slots copied, or -1 when the bank is not open
+   */
+  int readBank(int[] ids, int[] amounts);
+
+  /**
+   * Uses one inventory item on another
+   *
+   * @param itemId Item to use
+   * @param targetId Item to use it on
+   * @return Whether both items were found and the interaction was sent
+   */
+  boolean useItemOn(int itemId, int targetId);
+
+  /** @return Whether the make-all interface is open */
+  boolean isMakeAllOpen();
+
+  /**
+   * Picks a product in the make-all interface
+   *
+   * @param productName Product name as shown in the interface
+   * @return Whether the product was found and selected
+   */
+  boolean makeAll(String productName);
+
+  /** @return Whether the local player is animating */
+  boolean isAnimating();
+
+  /** @return Total herblore experience */
+  int getHerbloreExperience();
+}
@@ -0,0 +1,10 @@
+package script.game;
+
+/** Something the script clicks in the game, named so the click can be staged */
+public enum Interaction {
+  OPEN_BANK,
+  DEPOSIT_ALL,
+  WITHDRAW,
+  CLOSE_BANK,
+  USE_ITEM
+}
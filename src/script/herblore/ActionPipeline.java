@@ -0,0 +1,108 @@
+package script.herblore;
+
+import java.util.function.LongSupplier;
+import script.game.GameApi;
+import script.game.Interaction;
+
+/**
+ * Stages the clicks of a step and commits them together, so they are all processed on the next
+ * game tick.
+ *
+ * <p>The game processes every click made between two ticks on the next tick, in order. Waiting to
+ * see each click take effect before making the next one costs a tick per click; clicks whose
+ * outcome is certain can go out together instead, such as deposit-all followed by both withdraws,
+ * or closing the bank followed by using the items. After a commit the engine does not act again
+ * until a tick has passed.
+ *
+ * <p>Script thread only. Staging and committing allocate nothing.
+ */
+final class ActionPipeline {
+  static final int CAPACITY = 4;
+
+  private final LongSupplier ticks;
+  private final Interaction[] interactions = new Interaction[CAPACITY];
+  private final int[] itemIds = new int[CAPACITY];
+  private final int[] args = new int[CAPACITY];
+  private int size;
+  private long commitTick = -1;
+  private volatile boolean enabled = true;
+
+  /** @param ticks Game ticks seen so far */
+  ActionPipeline(LongSupplier ticks) {
+    this.ticks = ticks;
+  }
+
+  boolean isEnabled() {
+    return enabled;
+  }
+
+  void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /** Drops the staged clicks */
+  void clear() {
+    size = 0;
+  }
+
+  /** Drops the staged clicks and forgets what was committed */
+  void reset() {
+    size = 0;
+    commitTick = -1;
+  }
+
+  /**
+   * Adds a click to the batch
+   *
+   * @param interaction What to click
+   * @param itemId The item to withdraw or use, {@link GameApi#EMPTY} otherwise
+   * @param arg The amount to withdraw, or the item to use the first one on
+   */
+  void stage(Interaction interaction, int itemId, int arg) {
+    if (size == CAPACITY) {
+      throw new IllegalStateException("Pipeline full");
+    }
+    interactions[size] = interaction;
+    itemIds[size] = itemId;
+    args[size] = arg;
+    size++;
+  }
+
+  /**
+   * Sends the staged clicks in order, stopping at the first one that could not be sent
+   *
+   * @param game The game
+   * @return Number of clicks sent
+   */
+  int commit(GameApi game) {
+    int sent = 0;
+    while (sent < size && send(game, sent)) {
+      sent++;
+    }
+    size = 0;
+    commitTick = ticks.getAsLong();
+    return sent;
+  }
+
+  /** @return Whether committed clicks have not reached a game tick yet */
+  boolean isInFlight() {
+    return commitTick >= 0 && ticks.getAsLong() == commitTick;
+  }
+
+  private boolean send(GameApi game, int i) {
+    switch (interactions[i]) {
+      case OPEN_BANK:
+        return game.openBank();
+      case DEPOSIT_ALL:
+        return game.depositAll();
+      case WITHDRAW:
+        return game.withdraw(itemIds[i], args[i]);
+      case CLOSE_BANK:
+        return game.closeBank();
+      case USE_ITEM:
+        return game.useItemOn(itemIds[i], args[i]);
+      default:
+        throw new IllegalStateException("Cannot stage " + interactions[i]);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package script.herblore;
+
+import script.game.GameApi;
+import script.game.Interaction;
+import script.scheduler.LoopScheduler;
+
+/**
+ * Opens the nearest bank. With pipelining, the trip's deposit and withdraws are committed together
+ * as soon as the bank is open.
+ */
+final class BankState extends HerbloreState {
+  /** Ticks to wait for the bank to open before clicking it again */
+  private static final int RETRY_TICKS = 5;
+
+  private long clickTick;
+
+  BankState() {
+    super(Phase.BANK, LoopScheduler.Mode.WAITING);
+  }
+
+  @Override
+  void onEnter(HerbloreEngine engine) {
+    clickTick = -1;
+  }
+
+  @Override
+  HerbloreState execute(HerbloreEngine engine) {
+    GameApi game = engine.getGame();
+    ActionPipeline pipeline = engine.pipeline;
+    if (game.isBankOpen()) {
+      engine.bankOpened();
+      if (pipeline.isEnabled() && stageTrip(engine)) {
+        pipeline.commit(game);
+        return engine.withdraw;
+      }
+      return engine.deposit;
+    }
+    long tick = engine.getTicks();
+    if (clickTick < 0 || tick - clickTick >= RETRY_TICKS) {
+      clickTick = tick;
+      game.openBank();
+    }
+    return this;
+  }
+
+  /**
+   * Stages deposit-all and both withdraws of the next trip
+   *
+   * @return False if the planner has nothing left to withdraw
+   */
+  private static boolean stageTrip(HerbloreEngine engine) {
+    ActionPipeline pipeline = engine.pipeline;
+    BankTripPlanner planner = engine.planner;
+    pipeline.clear();
+    if (planner.getTripPotions() == 0) {
+      return false;
+    }
+    Recipe recipe = engine.getRecipe();
+    if (!engine.items.isInventoryEmpty()) {
+      pipeline.stage(Interaction.DEPOSIT_ALL, GameApi.EMPTY, 0);
+    }
+    pipeline.stage(Interaction.WITHDRAW, recipe.getPrimaryId(), planner.getTripPrimaries());
+    pipeline.stage(Interaction.WITHDRAW, recipe.getSecondaryId(), planner.getTripSecondaries());
+    return true;
+  }
+}
@@ -0,0 +1,181 @@
+package script.herblore;
+
+import script.scheduler.LoopScheduler;
+
+/**
+ * Plans the bank trips of a session: how many potions each trip makes, what to withdraw for it and
+ * how long the rest of the session should take.
+ *
+ * <p>Every trip but the last makes a full inventory of potions, which gives the most potions per
+ * trip and so the fewest trips. The plan is a closed form of the primaries and secondaries still
+ * available (bank plus inventory), so {@link #update(ItemSnapshot)} keeps it current in constant
+ * time as stock runs out, including while make-all is still running. By the time the bank opens,
+ * the next trip is already known. A job's potion target caps the plan.
+ *
+ * <p>Estimates use a fixed time model, see {@link #tripMillis(int)}. The planner runs on the
+ * script thread; the getters may be read from any thread.
+ */
+public final class BankTripPlanner {
+  /** Game ticks per potion while make-all runs */
+  static final int TICKS_PER_POTION = 2;
+
+  /**
+   * Ticks per trip outside make-all with the engine's action pipeline: walking to the bank, one
+   * tick of bank clicks, closing and combining, and confirming. Without the pipeline each bank
+   * click costs a tick of its own, about 3 more per trip.
+   */
+  static final int TRIP_OVERHEAD_TICKS = 5;
+
+  private volatile Recipe recipe;
+  private int limit;
+  private int stockPrimaries;
+  private int stockSecondaries;
+  private boolean known;
+  private volatile int remainingPotions;
+  private volatile int tripPotions;
+  private volatile long remainingMillis;
+
+  /**
+   * Starts planning for a recipe. Until stock has been seen, trips are planned as full batches.
+   *
+   * @param recipe The recipe to plan
+   * @param limit Most potions to make, or {@link Job#UNTIL_OUT_OF_STOCK} for no limit
+   */
+  public void start(Recipe recipe, int limit) {
+    this.recipe = recipe;
+    this.limit = limit;
+    known = false;
+    remainingPotions = -1;
+    tripPotions = limit < 0 ? recipe.getBatchSize() : Math.min(limit, recipe.getBatchSize());
+    remainingMillis = -1;
+  }
+
+  /**
+   * Counts finished potions against the limit
+   *
+   * @param potions Potions just made
+   */
+  public void recordMade(int potions) {
+    if (limit < 0) {
+      return;
+    }
+    limit = Math.max(0, limit - potions);
+    if (known) {
+      replan();
+    } else {
+      tripPotions = Math.min(limit, recipe.getBatchSize());
+    }
+  }
+
+  /**
+   * Re-plans from the stock in a snapshot, once the bank has been seen
+   *
+   * @param items Inventory and bank role counts for the current recipe
+   */
+  public void update(ItemSnapshot items) {
+    if (recipe == null || !items.isBankKnown()) {
+      return;
+    }
+    int primaries =
+        items.getBankCount(RecipeCatalog.ROLE_PRIMARY)
+            + items.getInventoryCount(RecipeCatalog.ROLE_PRIMARY);
+    int secondaries =
+        items.getBankCount(RecipeCatalog.ROLE_SECONDARY)
+            + items.getInventoryCount(RecipeCatalog.ROLE_SECONDARY);
+    update(primaries, secondaries);
+  }
+
+  /**
+   * Re-plans from the available stock
+   *
+   * @param primaries Primaries in the bank and inventory
+   * @param secondaries Secondaries in the bank and inventory
+   */
+  public void update(int primaries, int secondaries) {
+    if (known && primaries == stockPrimaries && secondaries == stockSecondaries) {
+      return;
+    }
+    stockPrimaries = primaries;
+    stockSecondaries = secondaries;
+    known = true;
+    replan();
+  }
+
+  private void replan() {
+    int potions = potions(recipe, stockPrimaries, stockSecondaries);
+    if (limit >= 0) {
+      potions = Math.min(potions, limit);
+    }
+    int batch = recipe.getBatchSize();
+    remainingPotions = potions;
+    tripPotions = Math.min(batch, potions);
+    remainingMillis = sessionMillis(recipe, potions);
+  }
+
+  /** @return Potions the next (or current) trip makes; 0 once stock has run out */
+  public int getTripPotions() {
+    return tripPotions;
+  }
+
+  /** @return Primaries to have in the inventory for the trip */
+  public int getTripPrimaries() {
+    return tripPotions;
+  }
+
+  /** @return Secondaries to have in the inventory for the trip */
+  public int getTripSecondaries() {
+    return tripPotions * recipe.getSecondaryPerPotion();
+  }
+
+  /** @return Potions left in the session, or -1 before the bank has been seen */
+  public int getRemainingPotions() {
+    return remainingPotions;
+  }
+
+  /** @return Trips left in the session, or -1 before the bank has been seen */
+  public int getRemainingTrips() {
+    int potions = remainingPotions;
+    Recipe current = recipe;
+    return potions < 0 || current == null ? -1 : trips(current, potions);
+  }
+
+  /** @return Expected time to use up the stock, or -1 before the bank has been seen */
+  public long getRemainingMillis() {
+    return remainingMillis;
+  }
+
+  /**
+   * Expected throughput of a recipe with unlimited stock, known before the first trip
+   *
+   * @param recipe The recipe
+   * @return Potions per hour
+   */
+  public static double estimatePotionsPerHour(Recipe recipe) {
+    int batch = recipe.getBatchSize();
+    return batch * 3_600_000.0 / tripMillis(batch);
+  }
+
+  /**
+   * @param potions Potions made in the trip
+   * @return Expected duration of one trip, in milliseconds
+   */
+  static long tripMillis(int potions) {
+    return (long) (TRIP_OVERHEAD_TICKS + potions * TICKS_PER_POTION) * LoopScheduler.TICK_MS;
+  }
+
+  static int potions(Recipe recipe, int primaries, int secondaries) {
+    return Math.max(0, Math.min(primaries, secondaries / recipe.getSecondaryPerPotion()));
+  }
+
+  static int trips(Recipe recipe, int potions) {
+    int batch = recipe.getBatchSize();
+    return (potions + batch - 1) / batch;
+  }
+
+  static long sessionMillis(Recipe recipe, int potions) {
+    int batch = recipe.getBatchSize();
+    int fullTrips = potions / batch;
+    int last = potions % batch;
+    return fullTrips * tripMillis(batch) + (last > 0 ? tripMillis(last) : 0);
+  }
+}
@@ -0,0 +1,37 @@
+package script.herblore;
+
+import script.game.GameApi;
+import script.scheduler.LoopScheduler;
+
+/** Uses the primary on the secondary and confirms make-all */
+final class CombineState extends HerbloreState {
+  CombineState() {
+    super(Phase.COMBINE, LoopScheduler.Mode.WAITING);
+  }
+
+  @Override
+  HerbloreState execute(HerbloreEngine engine) {
+    GameApi game = engine.getGame();
+    if (game.isBankOpen()) {
+      game.closeBank();
+      return this;
+    }
+
+    Recipe recipe = engine.getRecipe();
+    if (game.isMakeAllOpen()) {
+      if (!game.makeAll(recipe.getProductName())) {
+        return this;
+      }
+      engine.makeAllStarted();
+      return engine.makeAll;
+    }
+
+    ItemSnapshot items = engine.items;
+    if (items.getInventoryCount(RecipeCatalog.ROLE_PRIMARY) == 0
+        || items.getInventoryCount(RecipeCatalog.ROLE_SECONDARY) == 0
+        || !game.useItemOn(recipe.getPrimaryId(), recipe.getSecondaryId())) {
+      return engine.bank;
+    }
+    return this;
+  }
+}
@@ -0,0 +1,24 @@
+package script.herblore;
+
+import script.game.GameApi;
+import script.scheduler.LoopScheduler;
+
+/** Empties the inventory into the bank */
+final class DepositState extends HerbloreState {
+  DepositState() {
+    super(Phase.DEPOSIT, LoopScheduler.Mode.WAITING);
+  }
+
+  @Override
+  HerbloreState execute(HerbloreEngine engine) {
+    GameApi game = engine.getGame();
+    if (!game.isBankOpen()) {
+      return engine.bank;
+    }
+    if (engine.items.isInventoryEmpty()) {
+      return engine.withdraw;
+    }
+    game.depositAll();
+    return this;
+  }
+}
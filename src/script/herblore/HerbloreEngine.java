@@ -0,0 +1,327 @@
+package script.herblore;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import script.game.GameApi;
+import script.metrics.Counter;
+import script.metrics.Metrics;
+import script.scheduler.LoopScheduler;
+
+/**
+ * Runs the herblore cycle (bank, deposit, withdraw, combine, make-all) as a state machine, one step
+ * per script loop iteration. The states only touch the game through {@link GameApi}, and read item
+ * counts from an {@link ItemSnapshot} that is refreshed at most once per game tick.
+ *
+ * <p>{@link #start(Recipe)}, {@link #stop()} and {@link #onGameTick()} may be called from any
+ * thread; everything else runs on the script thread via {@link #loop()}. Time spent in each {@link
+ * Phase} is accumulated and can be read from any thread.
+ */
+public final class HerbloreEngine {
+  private static final Phase[] PHASES = Phase.values();
+  private static final Counter ACTIONS = Metrics.counter("engine.actions");
+  private static final Counter JOB_SWITCHES = Metrics.counter("engine.jobSwitches");
+  private static final Counter TICKS_LOST = Metrics.counter("engine.ticksLost");
+
+  /**
+   * Ticks from seeing the bank open to starting make-all at best: one for the bank clicks and one
+   * for using the items
+   */
+  static final int MIN_HANDLING_TICKS = 2;
+
+  final HerbloreState bank = new BankState();
+  final HerbloreState deposit = new DepositState();
+  final HerbloreState withdraw = new WithdrawState();
+  final HerbloreState combine = new CombineState();
+  final HerbloreState makeAll = new MakeAllState();
+
+  final ItemSnapshot items = new ItemSnapshot();
+  volatile BankTripPlanner planner = new BankTripPlanner();
+  final ActionPipeline pipeline = new ActionPipeline(this::getTicks);
+
+  private final GameApi game;
+  private final LongSupplier nanoClock;
+  private final AtomicLongArray phaseNanos = new AtomicLongArray(PHASES.length);
+  private final AtomicLongArray phaseEntries = new AtomicLongArray(PHASES.length);
+  private volatile List<Job> pendingJobs;
+  private volatile boolean stopRequested;
+  private volatile boolean running;
+  private volatile HerbloreState current;
+  private volatile JobQueue jobs;
+  private volatile long cycles;
+  private volatile long potionsMade;
+  private volatile long ticks;
+  private volatile long ticksLost;
+  private volatile long handledTrips;
+  private long bankOpenTick = -1;
+  private int batchPotions;
+  private Recipe recipe;
+  private long lastNanos;
+
+  /** @param game The game to play, on the system clock */
+  public HerbloreEngine(GameApi game) {
+    this(game, System::nanoTime);
+  }
+
+  /**
+   * @param game The game to play
+   * @param nanoClock Monotonic nanosecond clock used to account time per phase
+   */
+  public HerbloreEngine(GameApi game, LongSupplier nanoClock) {
+    this.game = game;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Starts crafting the given recipe from the next loop iteration, until the supplies run out
+   *
+   * @param recipe The recipe to craft
+   */
+  public void start(Recipe recipe) {
+    start(Collections.singletonList(Job.untilOutOfStock(recipe)));
+  }
+
+  /**
+   * Starts working through the given jobs from the next loop iteration
+   *
+   * @param jobs The jobs in order; must not be modified afterwards
+   */
+  public void start(List<Job> jobs) {
+    stopRequested = false;
+    pendingJobs = jobs;
+  }
+
+  /** Stops crafting on the next loop iteration */
+  public void stop() {
+    stopRequested = true;
+  }
+
+  /** Lets the engine know the game state may have changed. Call from the game tick callback. */
+  public void onGameTick() {
+    // Single writer: the tick callback
+    ticks = ticks + 1;
+    items.markDirty();
+  }
+
+  /**
+   * Turns the action pipeline on or off. When off, the engine waits to see each click take effect
+   * before making the next one.
+   *
+   * @param enabled Whether to pipeline
+   */
+  public void setPipelining(boolean enabled) {
+    pipeline.setEnabled(enabled);
+  }
+
+  /**
+   * Runs a single step of the state machine
+   *
+   * @return How the loop should schedule its next wake-up
+   */
+  public LoopScheduler.Mode loop() {
+    long now = nanoClock.getAsLong();
+    HerbloreState state = current;
+    if (state != null) {
+      int i = state.phase.ordinal();
+      phaseNanos.lazySet(i, phaseNanos.get(i) + (now - lastNanos));
+    }
+    lastNanos = now;
+    if (items.sync(game, now) && recipe != null) {
+      BankTripPlanner plan = planner;
+      plan.update(items);
+      int trips = plan.getRemainingTrips();
+      if (trips >= 0 && trips <= 1 && jobs.needsPreparation()) {
+        jobs.prepareNext(items);
+      }
+    }
+
+    if (stopRequested) {
+      stopRequested = false;
+      pendingJobs = null;
+      finish();
+      return LoopScheduler.Mode.IDLE;
+    }
+
+    List<Job> next = pendingJobs;
+    if (next != null) {
+      pendingJobs = null;
+      jobs = new JobQueue(next);
+      running = true;
+      if (!beginJob(null)) {
+        finish();
+        return LoopScheduler.Mode.IDLE;
+      }
+      enter(bank);
+      state = bank;
+    }
+    if (state == null) {
+      return LoopScheduler.Mode.IDLE;
+    }
+    if (pipeline.isInFlight()) {
+      // Nothing to see before the committed clicks have been processed
+      return LoopScheduler.Mode.WAITING;
+    }
+
+    ACTIONS.increment();
+    HerbloreState following = state.execute(this);
+    if (following == null || jobs.isCurrentDone()) {
+      // Out of supplies or target reached: carry on with the next job from the bank
+      if (!beginJob(jobs.advance())) {
+        finish();
+        return LoopScheduler.Mode.IDLE;
+      }
+      JOB_SWITCHES.increment();
+      following = bank;
+    }
+    if (following != state) {
+      enter(following);
+      return LoopScheduler.Mode.ACTIVE;
+    }
+    return state.mode;
+  }
+
+  private void enter(HerbloreState state) {
+    phaseEntries.lazySet(state.phase.ordinal(), phaseEntries.get(state.phase.ordinal()) + 1);
+    state.onEnter(this);
+    current = state;
+  }
+
+  /**
+   * Switches to the current job of the queue
+   *
+   * @param prepared The job's prepared plan, or null to plan it now
+   * @return False if there are no jobs left
+   */
+  private boolean beginJob(BankTripPlanner prepared) {
+    Job job = jobs.current();
+    if (job == null) {
+      return false;
+    }
+    recipe = job.getRecipe();
+    items.setRecipe(recipe);
+    pipeline.reset();
+    bankOpenTick = -1;
+    BankTripPlanner plan = prepared;
+    if (plan == null) {
+      plan = new BankTripPlanner();
+      plan.start(recipe, job.getTargetPotions());
+    }
+    plan.update(items);
+    planner = plan;
+    return true;
+  }
+
+  private void finish() {
+    pipeline.reset();
+    bankOpenTick = -1;
+    current = null;
+    recipe = null;
+    running = false;
+  }
+
+  /** Records how many potions the inventory that is about to be combined will make */
+  void setBatchPotions(int potions) {
+    batchPotions = potions;
+  }
+
+  void cycleCompleted() {
+    potionsMade += batchPotions;
+    jobs.recordPotions(batchPotions);
+    planner.recordMade(batchPotions);
+    batchPotions = 0;
+    cycles++;
+  }
+
+  /** Notes the first time the bank is seen open on a trip */
+  void bankOpened() {
+    if (bankOpenTick < 0) {
+      bankOpenTick = ticks;
+    }
+  }
+
+  /** Counts the ticks the trip took from the bank opening beyond {@link #MIN_HANDLING_TICKS} */
+  void makeAllStarted() {
+    if (bankOpenTick < 0) {
+      // Restarted after an interruption, not a bank trip
+      return;
+    }
+    long lost = Math.max(0, ticks - bankOpenTick - MIN_HANDLING_TICKS);
+    bankOpenTick = -1;
+    ticksLost += lost;
+    handledTrips++;
+    TICKS_LOST.add(lost);
+  }
+
+  long getTicks() {
+    return ticks;
+  }
+
+  GameApi getGame() {
+    return game;
+  }
+
+  /** @return The inventory and bank as of the last game tick */
+  public ItemSnapshot getItems() {
+    return items;
+  }
+
+  /** @return The trip plan of the current job */
+  public BankTripPlanner getPlanner() {
+    return planner;
+  }
+
+  /** @return The jobs of the current or last run, or null before the first start */
+  public JobQueue getJobs() {
+    return jobs;
+  }
+
+  Recipe getRecipe() {
+    return recipe;
+  }
+
+  /** @return Whether a recipe is being crafted */
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** @return The current phase, or null when idle */
+  public Phase getPhase() {
+    HerbloreState state = current;
+    return state == null ? null : state.phase;
+  }
+
+  /** @return Number of completed inventories */
+  public long getCycles() {
+    return cycles;
+  }
+
+  /** @return Potions made in completed inventories */
+  public long getPotionsMade() {
+    return potionsMade;
+  }
+
+  /**
+   * @return Mean ticks per bank trip spent between the bank opening and make-all starting, beyond
+   *     the {@value #MIN_HANDLING_TICKS} it takes at best
+   */
+  public double getTicksLostPerCycle() {
+    return (double) ticksLost / Math.max(1, handledTrips);
+  }
+
+  /**
+   * @param phase The phase to query
+   * @return Total milliseconds spent in the phase, including loop sleeps
+   */
+  public long getPhaseMillis(Phase phase) {
+    return phaseNanos.get(phase.ordinal()) / 1_000_000L;
+  }
+
+  /**
+   * @param phase The phase to query
+   * @return How many times the phase has been entered
+   */
+  public long getPhaseEntries(Phase phase) {
+    return phaseEntries.get(phase.ordinal());
+  }
+}
@@ -0,0 +1,28 @@
+package script.herblore;
+
+import script.scheduler.LoopScheduler;
+
+/**
+ * One state of the herblore state machine. States are created once per engine and transitions
+ * only hand back references to them, so running the machine allocates nothing.
+ */
+abstract class HerbloreState {
+  final Phase phase;
+  final LoopScheduler.Mode mode;
+
+  HerbloreState(Phase phase, LoopScheduler.Mode mode) {
+    this.phase = phase;
+    this.mode = mode;
+  }
+
+  /** Called when the engine moves into this state from a different one */
+  void onEnter(HerbloreEngine engine) {}
+
+  /**
+   * Performs at most one game interaction, or commits one batch of the action pipeline
+   *
+   * @param engine The engine running this state
+   * @return The next state, this state to stay, or null when the session is finished
+   */
+  abstract HerbloreState execute(HerbloreEngine engine);
+}
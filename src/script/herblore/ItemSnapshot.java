@@ -0,0 +1,207 @@
+package script.herblore;
+
+import java.util.Arrays;
+import script.game.GameApi;
+
+/**
+ * Last known inventory and bank contents, kept as per-slot primitive arrays together with running
+ * totals per recipe role.
+ *
+ * <p>Item containers only change on a game tick, so {@link #sync(GameApi, long)} re-reads them only
+ * after {@link #markDirty()} has been called from the tick callback, or once the copy is older
+ * than two ticks in case callbacks stop. A sync reads the containers into scratch arrays, compares
+ * them with the previous copy slot by slot and adjusts the role totals for the slots that
+ * changed. Between syncs every count is a field read. The bank is only read while it is open; its
+ * totals keep their last known values while it is closed.
+ *
+ * <p>{@link #markDirty()} may be called from any thread; everything else runs on the script
+ * thread.
+ */
+public final class ItemSnapshot {
+  /** Most slots read from the bank */
+  public static final int BANK_SLOTS = 1420;
+
+  static final long MAX_AGE_NANOS = 1_200_000_000L;
+
+  private static final int ROLES = 4;
+
+  private int[] inventoryIds = new int[GameApi.INVENTORY_SLOTS];
+  private int[] inventoryAmounts = new int[GameApi.INVENTORY_SLOTS];
+  private int[] inventoryScratchIds = new int[GameApi.INVENTORY_SLOTS];
+  private int[] inventoryScratchAmounts = new int[GameApi.INVENTORY_SLOTS];
+  private int[] bankIds = new int[BANK_SLOTS];
+  private int[] bankAmounts = new int[BANK_SLOTS];
+  private int[] bankScratchIds = new int[BANK_SLOTS];
+  private int[] bankScratchAmounts = new int[BANK_SLOTS];
+  private int bankSize;
+  private boolean bankKnown;
+
+  private final int[] inventoryRoles = new int[ROLES];
+  private final int[] bankRoles = new int[ROLES];
+  private int occupiedSlots;
+  private Recipe recipe;
+
+  private volatile boolean dirty = true;
+  private long syncedNanos;
+  private long syncs;
+
+  public ItemSnapshot() {
+    Arrays.fill(inventoryIds, GameApi.EMPTY);
+  }
+
+  /** Flags the copy as stale; call from the game tick callback */
+  public void markDirty() {
+    dirty = true;
+  }
+
+  /**
+   * Re-reads the containers if they may have changed
+   *
+   * @param game The game to read
+   * @param nowNanos Current time, on the clock the snapshot is synced with
+   * @return Whether the containers were read
+   */
+  public boolean sync(GameApi game, long nowNanos) {
+    if (!dirty && nowNanos - syncedNanos < MAX_AGE_NANOS) {
+      return false;
+    }
+    // Clear first, so a tick during the read triggers another sync
+    dirty = false;
+    syncedNanos = nowNanos;
+    syncs++;
+
+    game.readInventory(inventoryScratchIds, inventoryScratchAmounts);
+    for (int slot = 0; slot < GameApi.INVENTORY_SLOTS; slot++) {
+      int id = inventoryScratchIds[slot];
+      int amount = inventoryScratchAmounts[slot];
+      int oldId = inventoryIds[slot];
+      if (id != oldId || amount != inventoryAmounts[slot]) {
+        occupiedSlots += (id != GameApi.EMPTY ? 1 : 0) - (oldId != GameApi.EMPTY ? 1 : 0);
+        inventoryRoles[roleOf(oldId)] -= inventoryAmounts[slot];
+        inventoryRoles[roleOf(id)] += amount;
+      }
+    }
+    int[] swap = inventoryIds;
+    inventoryIds = inventoryScratchIds;
+    inventoryScratchIds = swap;
+    swap = inventoryAmounts;
+    inventoryAmounts = inventoryScratchAmounts;
+    inventoryScratchAmounts = swap;
+
+    int size = game.readBank(bankScratchIds, bankScratchAmounts);
+    if (size >= 0) {
+      syncBank(size);
+    }
+    return true;
+  }
+
+  private void syncBank(int size) {
+    if (!bankKnown) {
+      bankSize = 0;
+      bankKnown = true;
+    }
+    int common = Math.min(size, bankSize);
+    for (int slot = 0; slot < common; slot++) {
+      if (bankScratchIds[slot] != bankIds[slot] || bankScratchAmounts[slot] != bankAmounts[slot]) {
+        bankRoles[roleOf(bankIds[slot])] -= bankAmounts[slot];
+        bankRoles[roleOf(bankScratchIds[slot])] += bankScratchAmounts[slot];
+      }
+    }
+    for (int slot = common; slot < bankSize; slot++) {
+      bankRoles[roleOf(bankIds[slot])] -= bankAmounts[slot];
+    }
+    for (int slot = common; slot < size; slot++) {
+      bankRoles[roleOf(bankScratchIds[slot])] += bankScratchAmounts[slot];
+    }
+    bankSize = size;
+    int[] swap = bankIds;
+    bankIds = bankScratchIds;
+    bankScratchIds = swap;
+    swap = bankAmounts;
+    bankAmounts = bankScratchAmounts;
+    bankScratchAmounts = swap;
+  }
+
+  /**
+   * Switches the role totals to another recipe, recounting from the stored slots
+   *
+   * @param recipe The recipe, or null to count every item as {@code ROLE_NONE}
+   */
+  public void setRecipe(Recipe recipe) {
+    this.recipe = recipe;
+    Arrays.fill(inventoryRoles, 0);
+    Arrays.fill(bankRoles, 0);
+    for (int slot = 0; slot < GameApi.INVENTORY_SLOTS; slot++) {
+      inventoryRoles[roleOf(inventoryIds[slot])] += inventoryAmounts[slot];
+    }
+    for (int slot = 0; slot < bankSize; slot++) {
+      bankRoles[roleOf(bankIds[slot])] += bankAmounts[slot];
+    }
+  }
+
+  private int roleOf(int itemId) {
+    return recipe == null || itemId == GameApi.EMPTY
+        ? RecipeCatalog.ROLE_NONE
+        : recipe.roleOf(itemId);
+  }
+
+  /**
+   * @param role One of the {@code RecipeCatalog.ROLE_*} constants
+   * @return Items of that role in the inventory, stacks counted in full
+   */
+  public int getInventoryCount(int role) {
+    return inventoryRoles[role];
+  }
+
+  /**
+   * @param role One of the {@code RecipeCatalog.ROLE_*} constants
+   * @return Items of that role in the bank when it was last open
+   */
+  public int getBankCount(int role) {
+    return bankRoles[role];
+  }
+
+  /**
+   * Counts any item, for recipes other than the current one. Scans the stored slots.
+   *
+   * @param itemId The item ID
+   * @return Amount in the inventory
+   */
+  public int getInventoryAmount(int itemId) {
+    return sum(inventoryIds, inventoryAmounts, GameApi.INVENTORY_SLOTS, itemId);
+  }
+
+  /**
+   * Counts any item, for recipes other than the current one. Scans the stored slots.
+   *
+   * @param itemId The item ID
+   * @return Amount in the bank when it was last open
+   */
+  public int getBankAmount(int itemId) {
+    return sum(bankIds, bankAmounts, bankSize, itemId);
+  }
+
+  private static int sum(int[] ids, int[] amounts, int size, int itemId) {
+    int total = 0;
+    for (int slot = 0; slot < size; slot++) {
+      if (ids[slot] == itemId) {
+        total += amounts[slot];
+      }
+    }
+    return total;
+  }
+
+  public boolean isInventoryEmpty() {
+    return occupiedSlots == 0;
+  }
+
+  /** @return Whether the bank has been open since the snapshot was created */
+  public boolean isBankKnown() {
+    return bankKnown;
+  }
+
+  /** @return How many times the containers were read */
+  public long getSyncs() {
+    return syncs;
+  }
+}
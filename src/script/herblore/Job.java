@@ -0,0 +1,94 @@
+package script.herblore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** One entry of a job queue: a recipe and when to move on to the next job. Immutable. */
+public final class Job {
+  /** Target of a job that runs until the bank is out of supplies */
+  public static final int UNTIL_OUT_OF_STOCK = -1;
+
+  private final Recipe recipe;
+  private final int targetPotions;
+
+  private Job(Recipe recipe, int targetPotions) {
+    this.recipe = recipe;
+    this.targetPotions = targetPotions;
+  }
+
+  /**
+   * @param recipe The recipe to craft
+   * @return A job that crafts until the supplies run out
+   */
+  public static Job untilOutOfStock(Recipe recipe) {
+    return new Job(recipe, UNTIL_OUT_OF_STOCK);
+  }
+
+  /**
+   * @param recipe The recipe to craft
+   * @param potions How many potions to make; the job also ends if the supplies run out first
+   * @return The job
+   */
+  public static Job potions(Recipe recipe, int potions) {
+    if (potions <= 0) {
+      throw new IllegalArgumentException("Potion target must be positive: " + potions);
+    }
+    return new Job(recipe, potions);
+  }
+
+  /**
+   * Parses jobs written as {@code name[:potions]} and separated by {@code |}, e.g. {@code Prayer
+   * potion:1200|Super restore potion}
+   *
+   * @param spec The job list
+   * @param catalog Where to look up the recipe names
+   * @return The jobs in order
+   * @throws IllegalArgumentException If a recipe is unknown or a target is not a positive number
+   */
+  public static List<Job> parseAll(String spec, RecipeCatalog catalog) {
+    List<Job> jobs = new ArrayList<>();
+    for (String part : spec.split("\\|")) {
+      String entry = part.trim();
+      if (entry.isEmpty()) {
+        continue;
+      }
+      int colon = entry.lastIndexOf(':');
+      String name = colon < 0 ? entry : entry.substring(0, colon).trim();
+      Recipe recipe = catalog.find(name);
+      if (recipe == null) {
+        throw new IllegalArgumentException("Unknown potion: " + name);
+      }
+      if (colon < 0) {
+        jobs.add(untilOutOfStock(recipe));
+        continue;
+      }
+      int potions;
+      try {
+        potions = Integer.parseInt(entry.substring(colon + 1).trim());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Bad potion target in job: " + entry, e);
+      }
+      jobs.add(potions(recipe, potions));
+    }
+    return Collections.unmodifiableList(jobs);
+  }
+
+  public Recipe getRecipe() {
+    return recipe;
+  }
+
+  /** @return Potions to make, or {@link #UNTIL_OUT_OF_STOCK} */
+  public int getTargetPotions() {
+    return targetPotions;
+  }
+
+  public boolean isUntilOutOfStock() {
+    return targetPotions == UNTIL_OUT_OF_STOCK;
+  }
+
+  @Override
+  public String toString() {
+    return isUntilOutOfStock() ? recipe + " until out" : targetPotions + " x " + recipe;
+  }
+}
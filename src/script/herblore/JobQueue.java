@@ -0,0 +1,94 @@
+package script.herblore;
+
+import java.util.List;
+
+/**
+ * The jobs of one run and how far along it is.
+ *
+ * <p>The engine moves to the next job when the current one reaches its potion target or runs out
+ * of supplies, without stopping. While the current job is on its last trip, the engine calls
+ * {@link #prepareNext(ItemSnapshot)} in the ticks it spends waiting on make-all, so the next
+ * job's trip plan is ready before the switch. The engine updates the queue on the script thread;
+ * the getters may be read from any thread.
+ */
+public final class JobQueue {
+  private final List<Job> jobs;
+  private volatile int index;
+  private volatile int madeInCurrent;
+  private BankTripPlanner prepared;
+
+  /** @param jobs The jobs in order, not modified afterwards */
+  JobQueue(List<Job> jobs) {
+    this.jobs = jobs;
+  }
+
+  /** @return All jobs of the run, including finished ones */
+  public List<Job> getJobs() {
+    return jobs;
+  }
+
+  /** @return Index of the current job, or the number of jobs once all are finished */
+  public int getIndex() {
+    return index;
+  }
+
+  /** @return Potions made so far in the current job */
+  public int getMadeInCurrent() {
+    return madeInCurrent;
+  }
+
+  /** @return The current job, or null once all are finished */
+  Job current() {
+    int i = index;
+    return i < jobs.size() ? jobs.get(i) : null;
+  }
+
+  void recordPotions(int potions) {
+    madeInCurrent += potions;
+  }
+
+  /** @return Whether the current job has reached its potion target */
+  boolean isCurrentDone() {
+    Job job = current();
+    return job != null && !job.isUntilOutOfStock() && madeInCurrent >= job.getTargetPotions();
+  }
+
+  /** @return Whether there is a next job whose plan has not been prepared yet */
+  boolean needsPreparation() {
+    return prepared == null && index + 1 < jobs.size();
+  }
+
+  /**
+   * Plans the next job's trips from the last known stock
+   *
+   * @param items The snapshot; nothing is prepared until the bank has been seen
+   */
+  void prepareNext(ItemSnapshot items) {
+    if (!needsPreparation() || !items.isBankKnown()) {
+      return;
+    }
+    Job next = jobs.get(index + 1);
+    Recipe recipe = next.getRecipe();
+    BankTripPlanner planner = new BankTripPlanner();
+    planner.start(recipe, next.getTargetPotions());
+    planner.update(
+        items.getBankAmount(recipe.getPrimaryId())
+            + items.getInventoryAmount(recipe.getPrimaryId()),
+        items.getBankAmount(recipe.getSecondaryId())
+            + items.getInventoryAmount(recipe.getSecondaryId()));
+    prepared = planner;
+  }
+
+  /**
+   * Moves to the next job
+   *
+   * @return The prepared plan of the new current job, or null if none was prepared
+   */
+  BankTripPlanner advance() {
+    BankTripPlanner plan = prepared;
+    prepared = null;
+    madeInCurrent = 0;
+    index++;
+    return plan;
+  }
+}
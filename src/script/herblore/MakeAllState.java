@@ -0,0 +1,38 @@
+package script.herblore;
+
+import script.scheduler.LoopScheduler;
+
+/** Waits for make-all to finish, re-combining if it was interrupted */
+final class MakeAllState extends HerbloreState {
+  /** Loop passes without animating before make-all is considered interrupted */
+  private static final int MAX_IDLE_PASSES = 4;
+
+  private int idlePasses;
+
+  MakeAllState() {
+    super(Phase.MAKE_ALL, LoopScheduler.Mode.WAITING);
+  }
+
+  @Override
+  void onEnter(HerbloreEngine engine) {
+    idlePasses = 0;
+  }
+
+  @Override
+  HerbloreState execute(HerbloreEngine engine) {
+    ItemSnapshot items = engine.items;
+    if (items.getInventoryCount(RecipeCatalog.ROLE_PRIMARY) == 0
+        || items.getInventoryCount(RecipeCatalog.ROLE_SECONDARY)
+            < engine.getRecipe().getSecondaryPerPotion()) {
+      engine.cycleCompleted();
+      return engine.bank;
+    }
+
+    if (engine.getGame().isAnimating()) {
+      idlePasses = 0;
+    } else if (++idlePasses > MAX_IDLE_PASSES) {
+      return engine.combine;
+    }
+    return this;
+  }
+}
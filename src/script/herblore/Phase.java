@@ -0,0 +1,21 @@
+package script.herblore;
+
+/** The steps of one herblore cycle, used to label states and account time per step */
+public enum Phase {
+  BANK("Banking"),
+  DEPOSIT("Depositing"),
+  WITHDRAW("Withdrawing"),
+  COMBINE("Combining"),
+  MAKE_ALL("Making potions");
+
+  private final String label;
+
+  Phase(String label) {
+    this.label = label;
+  }
+
+  /** @return Human readable name, suitable for paint and status text */
+  public String getLabel() {
+    return label;
+  }
+}
@@ -0,0 +1,83 @@
+package script.herblore;
+
+/**
+ * A single potion recipe: one primary (usually an unfinished potion) combined with a secondary.
+ * This is a view onto a row of a {@link RecipeCatalog}; the catalog creates exactly one per row.
+ */
+public final class Recipe {
+  private final RecipeCatalog catalog;
+  private final int id;
+
+  Recipe(RecipeCatalog catalog, int id) {
+    this.catalog = catalog;
+    this.id = id;
+  }
+
+  /** @return Row index of this recipe in its catalog */
+  public int getId() {
+    return id;
+  }
+
+  /** @return Display name, as shown in the potion dropdown */
+  public String getName() {
+    return catalog.names[id];
+  }
+
+  /** @return Product name, as shown in the make-all interface */
+  public String getProductName() {
+    return catalog.productNames[id];
+  }
+
+  public int getProductId() {
+    return catalog.productIds[id];
+  }
+
+  public int getPrimaryId() {
+    return catalog.primaryIds[id];
+  }
+
+  public int getSecondaryId() {
+    return catalog.secondaryIds[id];
+  }
+
+  public int getSecondaryPerPotion() {
+    return catalog.secondaryPerPotion[id];
+  }
+
+  public boolean isStackableSecondary() {
+    return catalog.stackableSecondary[id];
+  }
+
+  public int getLevel() {
+    return catalog.levels[id];
+  }
+
+  /** @return Experience per potion made */
+  public double getXp() {
+    return catalog.xpTenths[id] / 10.0;
+  }
+
+  public int getDoses() {
+    return catalog.doses[id];
+  }
+
+  /** @return How many potions fit in one 28-slot inventory */
+  public int getBatchSize() {
+    return isStackableSecondary() ? 27 : 28 / (1 + getSecondaryPerPotion());
+  }
+
+  /**
+   * Looks up what an item is used for in this recipe
+   *
+   * @param itemId The item ID
+   * @return One of the {@code RecipeCatalog.ROLE_*} constants
+   */
+  public int roleOf(int itemId) {
+    return catalog.roleOf(id, itemId);
+  }
+
+  @Override
+  public String toString() {
+    return getName();
+  }
+}
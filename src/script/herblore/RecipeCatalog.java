@@ -0,0 +1,221 @@
+package script.herblore;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Table of potion recipes, stored column-wise in primitive arrays.
+ *
+ * <p>Besides recipe ID to row lookups, the catalog keeps a dense item ID index so that "what is
+ * this item used for in recipe X" is two array reads with no boxing or hashing. Recipes are loaded
+ * from a CSV resource, so new potions only need a new line in {@code recipes.csv}.
+ */
+public final class RecipeCatalog {
+  public static final int ROLE_NONE = 0;
+  public static final int ROLE_PRIMARY = 1;
+  public static final int ROLE_SECONDARY = 2;
+  public static final int ROLE_PRODUCT = 3;
+
+  private static final String DEFAULT_RESOURCE = "recipes.csv";
+  private static final int COLUMNS = 10;
+
+  final String[] names;
+  final String[] productNames;
+  final int[] productIds;
+  final int[] primaryIds;
+  final int[] secondaryIds;
+  final int[] secondaryPerPotion;
+  final boolean[] stackableSecondary;
+  final int[] levels;
+  final int[] xpTenths;
+  final int[] doses;
+
+  private final Recipe[] recipes;
+
+  /** Item ID to compact item index plus one; 0 for items no recipe uses */
+  private final char[] itemIndex;
+
+  /** Role of each compact item in each recipe, row-major by compact item */
+  private final byte[] roles;
+
+  private RecipeCatalog(List<String[]> rows) {
+    int n = rows.size();
+    names = new String[n];
+    productNames = new String[n];
+    productIds = new int[n];
+    primaryIds = new int[n];
+    secondaryIds = new int[n];
+    secondaryPerPotion = new int[n];
+    stackableSecondary = new boolean[n];
+    levels = new int[n];
+    xpTenths = new int[n];
+    doses = new int[n];
+    recipes = new Recipe[n];
+
+    int maxItemId = 0;
+    for (int i = 0; i < n; i++) {
+      String[] row = rows.get(i);
+      names[i] = row[0];
+      productNames[i] = row[1];
+      productIds[i] = Integer.parseInt(row[2]);
+      primaryIds[i] = Integer.parseInt(row[3]);
+      secondaryIds[i] = Integer.parseInt(row[4]);
+      secondaryPerPotion[i] = Integer.parseInt(row[5]);
+      stackableSecondary[i] = Boolean.parseBoolean(row[6]);
+      levels[i] = Integer.parseInt(row[7]);
+      xpTenths[i] = (int) Math.round(Double.parseDouble(row[8]) * 10);
+      doses[i] = Integer.parseInt(row[9]);
+      recipes[i] = new Recipe(this, i);
+      maxItemId = Math.max(maxItemId, productIds[i]);
+      maxItemId = Math.max(maxItemId, Math.max(primaryIds[i], secondaryIds[i]));
+    }
+
+    itemIndex = new char[maxItemId + 1];
+    int items = 0;
+    for (int i = 0; i < n; i++) {
+      items = index(productIds[i], items);
+      items = index(primaryIds[i], items);
+      items = index(secondaryIds[i], items);
+    }
+    if (items >= Character.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many distinct items: " + items);
+    }
+
+    roles = new byte[items * n];
+    for (int i = 0; i < n; i++) {
+      roles[(itemIndex[productIds[i]] - 1) * n + i] = ROLE_PRODUCT;
+      roles[(itemIndex[primaryIds[i]] - 1) * n + i] = ROLE_PRIMARY;
+      roles[(itemIndex[secondaryIds[i]] - 1) * n + i] = ROLE_SECONDARY;
+    }
+  }
+
+  private int index(int itemId, int items) {
+    if (itemIndex[itemId] == 0) {
+      itemIndex[itemId] = (char) ++items;
+    }
+    return items;
+  }
+
+  /**
+   * Loads a catalog from CSV. Blank lines and lines starting with '#' are ignored, and so is the
+   * header line.
+   *
+   * @param in CSV input, closed by this method
+   * @return The loaded catalog
+   * @throws IOException If reading fails or a line is malformed
+   */
+  public static RecipeCatalog load(InputStream in) throws IOException {
+    List<String[]> rows = new ArrayList<>();
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      boolean header = true;
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        if (header) {
+          header = false;
+          continue;
+        }
+        String[] row = line.split(",");
+        if (row.length != COLUMNS) {
+          throw new IOException("Line " + lineNumber + ": expected " + COLUMNS + " columns");
+        }
+        for (int i = 0; i < row.length; i++) {
+          row[i] = row[i].trim();
+        }
+        rows.add(row);
+      }
+    }
+
+    try {
+      return new RecipeCatalog(rows);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Invalid recipe data: " + e.getMessage(), e);
+    }
+  }
+
+  /** @return The catalog bundled with the script */
+  public static RecipeCatalog getDefault() {
+    return Holder.DEFAULT;
+  }
+
+  /** @return Number of recipes */
+  public int size() {
+    return recipes.length;
+  }
+
+  /**
+   * @param id Recipe ID
+   * @return The recipe, or null if the ID is out of range
+   */
+  public Recipe get(int id) {
+    return id >= 0 && id < recipes.length ? recipes[id] : null;
+  }
+
+  /**
+   * Finds a recipe by name, ignoring case; underscores and dashes match spaces so names can be
+   * given as script parameters
+   *
+   * @param name Recipe name such as {@code Attack potion} or {@code attack_potion}
+   * @return The recipe, or null if there is none by that name
+   */
+  public Recipe find(String name) {
+    if (name == null) {
+      return null;
+    }
+    String wanted = name.trim().replace('_', ' ').replace('-', ' ');
+    for (Recipe recipe : recipes) {
+      if (recipe.getName().equalsIgnoreCase(wanted)) {
+        return recipe;
+      }
+    }
+    return null;
+  }
+
+  /** @return All recipes, in catalog order */
+  public Recipe[] toArray() {
+    return recipes.clone();
+  }
+
+  /**
+   * Looks up what an item is used for in a recipe
+   *
+   * @param recipeId Recipe ID
+   * @param itemId Item ID
+   * @return One of the {@code ROLE_*} constants
+   */
+  public int roleOf(int recipeId, int itemId) {
+    if (itemId < 0 || itemId >= itemIndex.length) {
+      return ROLE_NONE;
+    }
+    int item = itemIndex[itemId];
+    return item == 0 ? ROLE_NONE : roles[(item - 1) * recipes.length + recipeId];
+  }
+
+  private static final class Holder {
+    static final RecipeCatalog DEFAULT = loadDefault();
+
+    private static RecipeCatalog loadDefault() {
+      InputStream in = RecipeCatalog.class.getResourceAsStream(DEFAULT_RESOURCE);
+      if (in == null) {
+        throw new IllegalStateException("Missing bundled resource " + DEFAULT_RESOURCE);
+      }
+      try {
+        return load(in);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
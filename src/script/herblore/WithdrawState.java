@@ -0,0 +1,67 @@
+package script.herblore;
+
+import script.game.GameApi;
+import script.game.Interaction;
+import script.scheduler.LoopScheduler;
+
+/**
+ * Withdraws what the planner wants for this trip, then closes the bank. With pipelining, closing
+ * the bank and using the items go out together, and it also checks the withdraws that {@link
+ * BankState} committed.
+ */
+final class WithdrawState extends HerbloreState {
+  WithdrawState() {
+    super(Phase.WITHDRAW, LoopScheduler.Mode.WAITING);
+  }
+
+  @Override
+  HerbloreState execute(HerbloreEngine engine) {
+    GameApi game = engine.getGame();
+    if (!game.isBankOpen()) {
+      return engine.bank;
+    }
+
+    Recipe recipe = engine.getRecipe();
+    BankTripPlanner planner = engine.planner;
+    if (planner.getTripPotions() == 0) {
+      // Out of supplies
+      return null;
+    }
+
+    ItemSnapshot items = engine.items;
+    if (items.getInventoryCount(RecipeCatalog.ROLE_PRODUCT) > 0
+        || items.getInventoryCount(RecipeCatalog.ROLE_NONE) > 0) {
+      // A committed deposit did not go through
+      return engine.deposit;
+    }
+    int primaries = items.getInventoryCount(RecipeCatalog.ROLE_PRIMARY);
+    int wantedPrimaries = planner.getTripPrimaries();
+    if (primaries < wantedPrimaries && items.getBankCount(RecipeCatalog.ROLE_PRIMARY) > 0) {
+      game.withdraw(recipe.getPrimaryId(), wantedPrimaries - primaries);
+      return this;
+    }
+
+    int secondaries = items.getInventoryCount(RecipeCatalog.ROLE_SECONDARY);
+    int wantedSecondaries = planner.getTripSecondaries();
+    if (secondaries < wantedSecondaries && items.getBankCount(RecipeCatalog.ROLE_SECONDARY) > 0) {
+      game.withdraw(recipe.getSecondaryId(), wantedSecondaries - secondaries);
+      return this;
+    }
+
+    int potions = BankTripPlanner.potions(recipe, primaries, secondaries);
+    if (potions == 0) {
+      return null;
+    }
+    engine.setBatchPotions(potions);
+    ActionPipeline pipeline = engine.pipeline;
+    if (pipeline.isEnabled()) {
+      pipeline.clear();
+      pipeline.stage(Interaction.CLOSE_BANK, GameApi.EMPTY, 0);
+      pipeline.stage(Interaction.USE_ITEM, recipe.getPrimaryId(), recipe.getSecondaryId());
+      pipeline.commit(game);
+      return engine.combine;
+    }
+    game.closeBank();
+    return engine.combine;
+  }
+}
@@ -0,0 +1,91 @@
+package script.input;
+
+import java.awt.Point;
+import java.util.function.IntSupplier;
+import org.dreambot.api.input.Mouse;
+import org.dreambot.api.input.event.impl.mouse.MouseButton;
+import org.dreambot.api.input.mouse.algorithm.MouseAlgorithm;
+import org.dreambot.api.input.mouse.algorithm.StandardMouseAlgorithm;
+import org.dreambot.api.input.mouse.destination.AbstractMouseDestination;
+import org.dreambot.api.utilities.Sleep;
+import script.mouse.MousePath;
+import script.mouse.PathCache;
+import script.mouse.PathGenerator;
+
+/**
+ * Mouse algorithm that moves along generated {@link PathGenerator} paths while enabled, and falls
+ * back to the client's standard algorithm otherwise.
+ *
+ * <p>Paths come from a {@link PathCache} and are written into one reused {@link MousePath}, so a
+ * move allocates nothing besides what the client does for each hop. The time between points
+ * follows the current mouse speed, which the dynamic speed engine changes over time. Clicks are
+ * always handled by the fallback.
+ */
+public final class PathMouseAlgorithm implements MouseAlgorithm {
+  private static final int CACHE_ENTRIES = 64;
+  private static final int MAX_CACHED_POINTS = 256;
+  private static final int MAX_REPLAYS = 8;
+  private static final long MAX_POINT_NANOS = 8_000_000;
+
+  private final MouseAlgorithm fallback = new StandardMouseAlgorithm();
+  private final PathCache cache;
+  private final MousePath path = new MousePath();
+  private final IntSupplier speed;
+  private volatile boolean enabled;
+
+  /**
+   * @param speed Current mouse speed, 1 (slowest) to 100
+   * @param seed Random seed of the paths
+   */
+  public PathMouseAlgorithm(IntSupplier speed, long seed) {
+    this.speed = speed;
+    this.cache =
+        new PathCache(new PathGenerator(seed), CACHE_ENTRIES, MAX_CACHED_POINTS, MAX_REPLAYS);
+  }
+
+  /** @param enabled Whether moves follow generated paths instead of the standard algorithm */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public synchronized boolean handleMovement(AbstractMouseDestination destination) {
+    if (!enabled) {
+      return fallback.handleMovement(destination);
+    }
+    Point target = destination.getSuitablePoint();
+    Point position = Mouse.getPosition();
+    if (target == null || position == null) {
+      return fallback.handleMovement(destination);
+    }
+    cache.path(position.x, position.y, target.x, target.y, path);
+
+    long pointNanos = MAX_POINT_NANOS * (101 - clamp(speed.getAsInt())) / 100;
+    long owed = 0;
+    for (int i = 0; i < path.size(); i++) {
+      if (!Mouse.hop(path.getX(i), path.getY(i))) {
+        return false;
+      }
+      // Sleep in whole milliseconds, carrying the remainder to the next point
+      owed += pointNanos;
+      if (owed >= 1_000_000) {
+        Sleep.sleep(owed / 1_000_000);
+        owed %= 1_000_000;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean handleClick(MouseButton button) {
+    return fallback.handleClick(button);
+  }
+
+  private static int clamp(int speed) {
+    return Math.max(1, Math.min(100, speed));
+  }
+}
@@ -0,0 +1,9 @@
+package script.log;
+
+/** Log levels, in increasing order of severity */
+public enum Level {
+  DEBUG,
+  INFO,
+  WARN,
+  ERROR
+}
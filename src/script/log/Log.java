@@ -0,0 +1,92 @@
+package script.log;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Entry point of the logging subsystem.
+ *
+ * <p>Every logger writes into one preallocated {@link LogRing}; a single background {@link
+ * LogWriter} formats the entries and writes them to the console and to a rotating file. Logging is
+ * therefore safe from the script loop and the EDT, even when stdout is slow or redirected: if the
+ * writer falls behind, new entries are dropped and the number dropped is logged.
+ *
+ * <p>The writer starts on first use and is stopped by {@link #shutdown()}; logging after a shutdown
+ * starts a fresh writer. The log directory defaults to {@code ~/DreamBot/Logs/XPE} and can be
+ * changed with the {@code xpe.log.dir} system property.
+ */
+public final class Log {
+  static final int RING_CAPACITY = 4096;
+  static final long MAX_FILE_BYTES = 1024 * 1024;
+  static final int MAX_BACKUPS = 3;
+
+  static volatile int threshold = Level.INFO.ordinal();
+
+  private static volatile LogRing ring;
+  private static volatile LogWriter writer;
+
+  private Log() {}
+
+  /**
+   * Gets a logger
+   *
+   * @param name Name printed with each message
+   * @return The logger
+   */
+  public static Logger get(String name) {
+    return new Logger(name);
+  }
+
+  /**
+   * Sets the minimum level that is recorded
+   *
+   * @param level The new threshold
+   */
+  public static void setLevel(Level level) {
+    threshold = level.ordinal();
+  }
+
+  /** Writes out everything that is queued and stops the writer thread */
+  public static synchronized void shutdown() {
+    LogWriter current = writer;
+    if (current != null) {
+      writer = null;
+      ring = null;
+      current.shutdown();
+    }
+  }
+
+  static void enqueue(Level level, String source, Object message, Throwable error) {
+    LogWriter current = writer;
+    LogRing currentRing = ring;
+    if (current == null || currentRing == null) {
+      synchronized (Log.class) {
+        if (writer == null) {
+          start();
+        }
+        current = writer;
+        currentRing = ring;
+      }
+    }
+    if (currentRing.offer(level, source, message, error)) {
+      current.signal();
+    }
+  }
+
+  private static void start() {
+    String dir = System.getProperty("xpe.log.dir");
+    Path logDir =
+        dir != null
+            ? Paths.get(dir)
+            : Paths.get(System.getProperty("user.home"), "DreamBot", "Logs", "XPE");
+    LogRing newRing = new LogRing(RING_CAPACITY);
+    LogWriter newWriter =
+        new LogWriter(
+            newRing,
+            System.out,
+            new RotatingFileWriter(logDir.resolve("herblore.log"), MAX_FILE_BYTES, MAX_BACKUPS));
+    ring = newRing;
+    writer = newWriter;
+    newWriter.start();
+  }
+}
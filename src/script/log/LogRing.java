@@ -0,0 +1,104 @@
+package script.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer, single-consumer ring of log entries. All slots are allocated up front
+ * and producers never block: when the ring is full the entry is dropped and counted instead.
+ *
+ * <p>Each slot carries a sequence number. A producer claims a position with a CAS on the tail,
+ * fills the slot and publishes it by advancing the slot's sequence; the consumer frees a slot by
+ * moving its sequence one lap ahead.
+ */
+final class LogRing {
+  private final int mask;
+  private final AtomicLongArray sequences;
+  private final long[] times;
+  private final Level[] levels;
+  private final String[] sources;
+  private final Object[] messages;
+  private final Throwable[] errors;
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private long head;
+
+  /** @param capacity Number of slots, rounded up to a power of two */
+  LogRing(int capacity) {
+    int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+    mask = size - 1;
+    sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+    times = new long[size];
+    levels = new Level[size];
+    sources = new String[size];
+    messages = new Object[size];
+    errors = new Throwable[size];
+  }
+
+  /**
+   * Adds an entry; safe to call from any thread
+   *
+   * @param message A String, or a Supplier evaluated later by the consumer
+   * @return false if the ring was full and the entry was dropped
+   */
+  boolean offer(Level level, String source, Object message, Throwable error) {
+    long pos = tail.get();
+    int index;
+    while (true) {
+      index = (int) (pos & mask);
+      long diff = sequences.get(index) - pos;
+      if (diff == 0) {
+        if (tail.compareAndSet(pos, pos + 1)) {
+          break;
+        }
+        pos = tail.get();
+      } else if (diff < 0) {
+        dropped.incrementAndGet();
+        return false;
+      } else {
+        pos = tail.get();
+      }
+    }
+
+    times[index] = System.currentTimeMillis();
+    levels[index] = level;
+    sources[index] = source;
+    messages[index] = message;
+    errors[index] = error;
+    sequences.lazySet(index, pos + 1);
+    return true;
+  }
+
+  /**
+   * Removes the oldest entry and hands it to the visitor. Consumer thread only.
+   *
+   * @return false if the ring is empty
+   */
+  boolean poll(Visitor visitor) {
+    int index = (int) (head & mask);
+    if (sequences.get(index) != head + 1) {
+      return false;
+    }
+
+    visitor.visit(times[index], levels[index], sources[index], messages[index], errors[index]);
+    levels[index] = null;
+    sources[index] = null;
+    messages[index] = null;
+    errors[index] = null;
+    sequences.lazySet(index, head + mask + 1);
+    head++;
+    return true;
+  }
+
+  /** @return Entries dropped since the last call, resetting the count */
+  long takeDropped() {
+    return dropped.getAndSet(0);
+  }
+
+  interface Visitor {
+    void visit(long time, Level level, String source, Object message, Throwable error);
+  }
+}
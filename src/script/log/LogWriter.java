@@ -0,0 +1,156 @@
+package script.log;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.TimeZone;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * The single background thread that drains the {@link LogRing}, formats entries and writes them
+ * in batches to the console and a rotating log file. Slow output only ever stalls this thread;
+ * producers drop entries instead of waiting.
+ */
+final class LogWriter implements Runnable, LogRing.Visitor {
+  private static final int MAX_BATCH = 256;
+  private static final long IDLE_PARK_NANOS = 1_000_000_000L;
+
+  private final LogRing ring;
+  private final PrintStream console;
+  private final RotatingFileWriter file;
+  private final StringBuilder batch = new StringBuilder(8192);
+  private final TimeZone zone = TimeZone.getDefault();
+  private final Thread thread;
+  private volatile boolean parked;
+  private volatile boolean running = true;
+
+  LogWriter(LogRing ring, PrintStream console, RotatingFileWriter file) {
+    this.ring = ring;
+    this.console = console;
+    this.file = file;
+    this.thread = new Thread(this, "log-writer");
+    this.thread.setDaemon(true);
+  }
+
+  void start() {
+    thread.start();
+  }
+
+  /** Wakes the writer if it is idle. Cheap enough to call after every offer. */
+  void signal() {
+    if (parked) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /** Drains what is left, closes the file and stops the thread */
+  void shutdown() {
+    running = false;
+    LockSupport.unpark(thread);
+    try {
+      thread.join(2000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void run() {
+    while (running) {
+      if (!drain()) {
+        parked = true;
+        if (running && !drain()) {
+          LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        parked = false;
+      }
+    }
+    while (drain()) {
+      // Write out whatever was queued before shutdown
+    }
+    try {
+      if (file != null) {
+        file.close();
+      }
+    } catch (IOException e) {
+      console.println("[log-writer] Failed to close log file: " + e.getMessage());
+    }
+  }
+
+  /** @return true if anything was written */
+  private boolean drain() {
+    int count = 0;
+    while (count < MAX_BATCH && ring.poll(this)) {
+      count++;
+    }
+    long dropped = ring.takeDropped();
+    if (dropped > 0) {
+      format(System.currentTimeMillis(), Level.WARN, "log", dropped + " messages dropped", null);
+    }
+    if (batch.length() == 0) {
+      return false;
+    }
+
+    if (console != null) {
+      console.print(batch);
+      console.flush();
+    }
+    if (file != null) {
+      try {
+        file.write(batch);
+        file.flush();
+      } catch (IOException e) {
+        if (console != null) {
+          console.println("[log-writer] Failed to write log file: " + e.getMessage());
+        }
+      }
+    }
+    batch.setLength(0);
+    return true;
+  }
+
+  @Override
+  public void visit(long time, Level level, String source, Object message, Throwable error) {
+    String text;
+    if (message instanceof Supplier) {
+      try {
+        text = String.valueOf(((Supplier<?>) message).get());
+      } catch (RuntimeException e) {
+        text = "<message supplier failed: " + e + ">";
+      }
+    } else {
+      text = String.valueOf(message);
+    }
+    format(time, level, source, text, error);
+  }
+
+  private void format(long time, Level level, String source, String text, Throwable error) {
+    long millisOfDay = Math.floorMod(time + zone.getOffset(time), 86_400_000L);
+    batch.append('[');
+    pad(millisOfDay / 3_600_000L, 2);
+    batch.append(':');
+    pad(millisOfDay / 60_000L % 60, 2);
+    batch.append(':');
+    pad(millisOfDay / 1000L % 60, 2);
+    batch.append('.');
+    pad(millisOfDay % 1000, 3);
+    batch.append("] [").append(level).append("] [").append(source).append("] ").append(text);
+    batch.append(System.lineSeparator());
+    if (error != null) {
+      StringWriter trace = new StringWriter();
+      error.printStackTrace(new PrintWriter(trace));
+      batch.append(trace);
+    }
+  }
+
+  private void pad(long value, int digits) {
+    for (long limit = 10; --digits > 0; limit *= 10) {
+      if (value < limit) {
+        batch.append('0');
+      }
+    }
+    batch.append(value);
+  }
+}
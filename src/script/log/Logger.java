@@ -0,0 +1,60 @@
+package script.log;
+
+import java.util.function.Supplier;
+
+/**
+ * Named logger. Calls never block and never do I/O on the calling thread; see {@link Log}.
+ *
+ * <p>Prefer the {@link Supplier} overloads for messages that need building: when the level is
+ * disabled they cost a single comparison, and when it is enabled the supplier is evaluated on the
+ * writer thread, so it must only capture values that will not change.
+ */
+public final class Logger {
+  private final String name;
+
+  Logger(String name) {
+    this.name = name;
+  }
+
+  public boolean isEnabled(Level level) {
+    return level.ordinal() >= Log.threshold;
+  }
+
+  public void debug(String message) {
+    log(Level.DEBUG, message, null);
+  }
+
+  public void debug(Supplier<String> message) {
+    log(Level.DEBUG, message, null);
+  }
+
+  public void info(String message) {
+    log(Level.INFO, message, null);
+  }
+
+  public void info(Supplier<String> message) {
+    log(Level.INFO, message, null);
+  }
+
+  public void warn(String message) {
+    log(Level.WARN, message, null);
+  }
+
+  public void warn(Supplier<String> message) {
+    log(Level.WARN, message, null);
+  }
+
+  public void error(String message, Throwable error) {
+    log(Level.ERROR, message, error);
+  }
+
+  public void error(Supplier<String> message, Throwable error) {
+    log(Level.ERROR, message, error);
+  }
+
+  private void log(Level level, Object message, Throwable error) {
+    if (level.ordinal() >= Log.threshold) {
+      Log.enqueue(level, name, message, error);
+    }
+  }
+}
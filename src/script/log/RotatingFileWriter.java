@@ -0,0 +1,80 @@
+package script.log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends to a log file, rolling it over to {@code name.1 .. name.N} once it grows past a size
+ * limit. Not thread safe; only used by the log writer thread.
+ */
+final class RotatingFileWriter {
+  private final Path file;
+  private final long maxBytes;
+  private final int maxBackups;
+  private Writer writer;
+  private long size;
+
+  RotatingFileWriter(Path file, long maxBytes, int maxBackups) {
+    this.file = file;
+    this.maxBytes = maxBytes;
+    this.maxBackups = maxBackups;
+  }
+
+  void write(CharSequence text) throws IOException {
+    if (writer == null) {
+      open();
+    } else if (size >= maxBytes) {
+      rotate();
+    }
+    writer.append(text);
+    size += text.length();
+  }
+
+  void flush() throws IOException {
+    if (writer != null) {
+      writer.flush();
+    }
+  }
+
+  void close() throws IOException {
+    if (writer != null) {
+      writer.close();
+      writer = null;
+    }
+  }
+
+  private void open() throws IOException {
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    size = Files.exists(file) ? Files.size(file) : 0;
+    writer =
+        new BufferedWriter(
+            Files.newBufferedWriter(
+                file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+  }
+
+  private void rotate() throws IOException {
+    close();
+    for (int i = maxBackups - 1; i >= 1; i--) {
+      Path from = backup(i);
+      if (Files.exists(from)) {
+        Files.move(from, backup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    if (maxBackups > 0) {
+      Files.move(file, backup(1), StandardCopyOption.REPLACE_EXISTING);
+    } else {
+      Files.delete(file);
+    }
+    open();
+  }
+
+  private Path backup(int index) {
+    return file.resolveSibling(file.getFileName() + "." + index);
+  }
+}
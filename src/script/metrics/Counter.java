@@ -0,0 +1,20 @@
+package script.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Monotonic counter backed by a striped {@link LongAdder}, so hot increments do not contend */
+public final class Counter {
+  private final LongAdder adder = new LongAdder();
+
+  public void increment() {
+    adder.increment();
+  }
+
+  public void add(long amount) {
+    adder.add(amount);
+  }
+
+  public long get() {
+    return adder.sum();
+  }
+}
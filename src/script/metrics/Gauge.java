@@ -0,0 +1,14 @@
+package script.metrics;
+
+/** Last-value-wins measurement, such as a rate or a queue depth */
+public final class Gauge {
+  private volatile long value;
+
+  public void set(long value) {
+    this.value = value;
+  }
+
+  public long get() {
+    return value;
+  }
+}
@@ -0,0 +1,103 @@
+package script.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket log-linear histogram of nanosecond latencies.
+ *
+ * <p>Values below 16 get a bucket each; above that every power of two is split into 8 linear
+ * sub-buckets, which bounds the relative error at 12.5%. Values up to 2^40 ns (about 18 minutes)
+ * are tracked and larger ones are clamped. Recording is a few array operations and never
+ * allocates; percentiles are read straight from the live buckets.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BITS = 3;
+  private static final int SUB_COUNT = 1 << SUB_BITS;
+  private static final long MAX_VALUE = (1L << 40) - 1;
+  private static final int BUCKETS = indexOf(MAX_VALUE) + 1;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder total = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records one latency
+   *
+   * @param nanos Latency in nanoseconds; negative values count as zero
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+    buckets.incrementAndGet(indexOf(value));
+    count.increment();
+    total.add(value);
+    long current;
+    while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+      // Retry until max is at least value
+    }
+  }
+
+  /**
+   * Records the time elapsed since a {@link System#nanoTime()} reading
+   *
+   * @param startNanos The earlier reading
+   */
+  public void recordSince(long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getMaxNanos() {
+    return max.get();
+  }
+
+  public long getMeanNanos() {
+    long n = count.sum();
+    return n == 0 ? 0 : total.sum() / n;
+  }
+
+  /**
+   * Estimates a percentile. Concurrent recording may skew the result slightly.
+   *
+   * @param percentile Between 0 and 100
+   * @return Upper bound of the bucket holding the percentile, in nanoseconds
+   */
+  public long getPercentileNanos(double percentile) {
+    long n = count.sum();
+    if (n == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += buckets.get(i);
+      if (seen >= rank) {
+        return Math.min(upperBound(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  static int indexOf(long value) {
+    if (value < 2 * SUB_COUNT) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+    int top = (int) (value >>> shift);
+    return (shift + 1) * SUB_COUNT + (top - SUB_COUNT);
+  }
+
+  static long upperBound(int index) {
+    if (index < 2 * SUB_COUNT) {
+      return index;
+    }
+    int shift = index / SUB_COUNT - 1;
+    long top = index % SUB_COUNT + SUB_COUNT;
+    return ((top + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,79 @@
+package script.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Process-wide metrics registry.
+ *
+ * <p>Look metrics up once (for example into a {@code static final} field) and keep the reference;
+ * the lookups themselves go through a map, but updating and reading a metric never allocates and
+ * never locks.
+ */
+public final class Metrics {
+  private static final Map<String, Object> METRICS = new ConcurrentHashMap<>();
+
+  private Metrics() {}
+
+  /**
+   * Gets or creates a counter
+   *
+   * @param name Metric name
+   * @return The counter registered under the name
+   * @throws IllegalArgumentException If the name is registered as another kind of metric
+   */
+  public static Counter counter(String name) {
+    return get(name, Counter.class);
+  }
+
+  /**
+   * Gets or creates a gauge
+   *
+   * @param name Metric name
+   * @return The gauge registered under the name
+   * @throws IllegalArgumentException If the name is registered as another kind of metric
+   */
+  public static Gauge gauge(String name) {
+    return get(name, Gauge.class);
+  }
+
+  /**
+   * Gets or creates a latency histogram
+   *
+   * @param name Metric name
+   * @return The histogram registered under the name
+   * @throws IllegalArgumentException If the name is registered as another kind of metric
+   */
+  public static LatencyHistogram histogram(String name) {
+    return get(name, LatencyHistogram.class);
+  }
+
+  /**
+   * Visits every registered metric
+   *
+   * @param visitor Receives each name and its Counter, Gauge or LatencyHistogram
+   */
+  public static void forEach(BiConsumer<String, Object> visitor) {
+    METRICS.forEach(visitor);
+  }
+
+  private static <T> T get(String name, Class<T> type) {
+    Object metric =
+        METRICS.computeIfAbsent(
+            name,
+            key -> {
+              if (type == Counter.class) {
+                return new Counter();
+              } else if (type == Gauge.class) {
+                return new Gauge();
+              }
+              return new LatencyHistogram();
+            });
+    if (!type.isInstance(metric)) {
+      throw new IllegalArgumentException(
+          name + " is a " + metric.getClass().getSimpleName() + ", not a " + type.getSimpleName());
+    }
+    return type.cast(metric);
+  }
+}
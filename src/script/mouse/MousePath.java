@@ -0,0 +1,66 @@
+package script.mouse;
+
+/**
+ * Reusable buffer of mouse path points, stored as two primitive arrays.
+ *
+ * <p>Generators clear and refill the same instance for every move, so once the arrays have grown
+ * to the longest path seen, producing a path allocates nothing.
+ */
+public final class MousePath {
+  private int[] xs;
+  private int[] ys;
+  private int size;
+
+  /** Creates an empty path with room for 128 points */
+  public MousePath() {
+    this(128);
+  }
+
+  /** @param capacity Initial number of points the buffer can hold */
+  public MousePath(int capacity) {
+    xs = new int[Math.max(2, capacity)];
+    ys = new int[xs.length];
+  }
+
+  /** @return Number of points */
+  public int size() {
+    return size;
+  }
+
+  /** @return X coordinate of point {@code index} */
+  public int getX(int index) {
+    return xs[index];
+  }
+
+  /** @return Y coordinate of point {@code index} */
+  public int getY(int index) {
+    return ys[index];
+  }
+
+  void clear() {
+    size = 0;
+  }
+
+  void add(int x, int y) {
+    if (size == xs.length) {
+      int capacity = xs.length * 2;
+      xs = java.util.Arrays.copyOf(xs, capacity);
+      ys = java.util.Arrays.copyOf(ys, capacity);
+    }
+    xs[size] = x;
+    ys[size] = y;
+    size++;
+  }
+
+  /** Adds a point unless it repeats the last one */
+  void addDistinct(int x, int y) {
+    if (size == 0 || xs[size - 1] != x || ys[size - 1] != y) {
+      add(x, y);
+    }
+  }
+
+  void copyTo(int[] targetXs, int[] targetYs) {
+    System.arraycopy(xs, 0, targetXs, 0, size);
+    System.arraycopy(ys, 0, targetYs, 0, size);
+  }
+}
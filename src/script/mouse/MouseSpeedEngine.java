@@ -0,0 +1,110 @@
+package script.mouse;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import script.log.Log;
+import script.log.Logger;
+import script.metrics.Gauge;
+import script.metrics.Metrics;
+import script.scheduler.BackgroundScheduler;
+
+/**
+ * Varies the mouse speed over time while crafting runs.
+ *
+ * <p>The engine is one periodic task on the {@link BackgroundScheduler}; starting it again while it
+ * runs does nothing, so repeated starts never add threads or tasks. Each start picks one of the
+ * precomputed {@link SpeedCurve}s at a random offset, and every tick samples it without
+ * allocating. {@link #stop()} cancels the task and restores the resting speed before it returns,
+ * and no tick runs after that.
+ */
+public final class MouseSpeedEngine {
+  static final long TICK_MS = 250;
+  static final int CURVES = 4;
+  static final int CURVE_SAMPLES = 2400;
+  static final int CURVE_STEP_MS = 500;
+
+  private static final Logger LOG = Log.get("MouseSpeed");
+  private static final Gauge SPEED = Metrics.gauge("mouse.speed");
+
+  private final IntConsumer speedSink;
+  private final int restingSpeed;
+  private final SpeedCurve[] curves;
+  private final SplittableRandom random;
+  // Guarded by this
+  private ScheduledFuture<?> task;
+  private SpeedCurve curve;
+  private long originNanos;
+  private int lastSpeed;
+
+  /**
+   * Creates a stopped engine
+   *
+   * @param speedSink Applies a speed to the client
+   * @param restingSpeed Speed set while the engine is stopped
+   * @param minSpeed Lowest speed while running
+   * @param maxSpeed Highest speed while running
+   * @param seed Random seed for the curves and their offsets
+   */
+  public MouseSpeedEngine(
+      IntConsumer speedSink, int restingSpeed, int minSpeed, int maxSpeed, long seed) {
+    this.speedSink = speedSink;
+    this.restingSpeed = restingSpeed;
+    this.random = new SplittableRandom(seed);
+    this.curves = new SpeedCurve[CURVES];
+    for (int i = 0; i < CURVES; i++) {
+      curves[i] =
+          new SpeedCurve(random.nextLong(), CURVE_SAMPLES, CURVE_STEP_MS, minSpeed, maxSpeed);
+    }
+  }
+
+  /** Starts varying the speed; does nothing if already running */
+  public synchronized void start() {
+    if (task != null) {
+      return;
+    }
+    curve = curves[random.nextInt(curves.length)];
+    originNanos = System.nanoTime() - random.nextLong(curve.getPeriodMillis()) * 1_000_000L;
+    lastSpeed = -1;
+    task =
+        BackgroundScheduler.get()
+            .scheduleAtFixedRate(this::tick, 0, TICK_MS, TimeUnit.MILLISECONDS);
+    LOG.info("Dynamic mouse speed started");
+  }
+
+  /** Stops varying the speed and restores the resting speed; does nothing if not running */
+  public synchronized void stop() {
+    if (task == null) {
+      return;
+    }
+    task.cancel(false);
+    task = null;
+    speedSink.accept(restingSpeed);
+    SPEED.set(restingSpeed);
+    LOG.info("Dynamic mouse speed stopped");
+  }
+
+  /** @return Whether the engine is running */
+  public synchronized boolean isRunning() {
+    return task != null;
+  }
+
+  private synchronized void tick() {
+    // A tick that was already due when stop() ran must not undo the resting speed
+    if (task == null) {
+      return;
+    }
+    try {
+      int speed = curve.sample(System.nanoTime() - originNanos);
+      if (speed != lastSpeed) {
+        lastSpeed = speed;
+        speedSink.accept(speed);
+        SPEED.set(speed);
+      }
+    } catch (RuntimeException e) {
+      // An exception would silently cancel the periodic task, so log and carry on
+      LOG.error("Failed to set the mouse speed", e);
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package script.mouse;
+
+import script.metrics.Counter;
+import script.metrics.Metrics;
+import script.random.FastRandom;
+
+/**
+ * Bounded cache of generated paths for frequent source and target pairs, such as bank slot to
+ * inventory slot.
+ *
+ * <p>Pairs are keyed on a coarse grid, so moves between the same two slots share an entry even
+ * though the exact click points differ. A replay stretches the cached path onto the actual end
+ * points and bends it by a random amount, with one pixel of noise per point, so no two moves are
+ * identical. An entry is regenerated after a number of replays so its shape keeps changing.
+ *
+ * <p>The table is direct-mapped with all storage allocated up front: a lookup is a hash and an
+ * array read, and a busy entry is only displaced after repeated misses on its slot. Not thread
+ * safe.
+ */
+public final class PathCache {
+  static final int GRID = 32;
+  static final double BEND_PX = 4;
+
+  private static final Counter HITS = Metrics.counter("mouse.path.hits");
+  private static final Counter MISSES = Metrics.counter("mouse.path.misses");
+  private static final long EMPTY = -1;
+
+  private final PathGenerator generator;
+  private final FastRandom random;
+  private final int shift;
+  private final int maxPoints;
+  private final int maxReplays;
+  private final long[] keys;
+  private final int[][] pointXs;
+  private final int[][] pointYs;
+  private final int[] lengths;
+  private final int[] ends;
+  private final int[] replays;
+  private final int[] credit;
+
+  /**
+   * @param generator Generates the paths that get cached
+   * @param entries Number of cached pairs, rounded up to a power of two
+   * @param maxPoints Longest path that is cached
+   * @param maxReplays Replays before an entry is regenerated
+   */
+  public PathCache(PathGenerator generator, int entries, int maxPoints, int maxReplays) {
+    this.generator = generator;
+    this.random = generator.random();
+    int size = Integer.highestOneBit(Math.max(2, entries) - 1) << 1;
+    this.shift = Long.numberOfLeadingZeros(size - 1);
+    this.maxPoints = maxPoints;
+    this.maxReplays = maxReplays;
+    keys = new long[size];
+    java.util.Arrays.fill(keys, EMPTY);
+    pointXs = new int[size][maxPoints];
+    pointYs = new int[size][maxPoints];
+    lengths = new int[size];
+    // Source x, source y, target x and target y of each cached path
+    ends = new int[size * 4];
+    replays = new int[size];
+    credit = new int[size];
+  }
+
+  /**
+   * Produces a path from a cached entry if there is one, else generates and caches it
+   *
+   * @param sx Source x
+   * @param sy Source y
+   * @param tx Target x
+   * @param ty Target y
+   * @param out Receives the points; cleared first
+   */
+  public void path(int sx, int sy, int tx, int ty, MousePath out) {
+    long key = key(sx, sy, tx, ty);
+    int slot = slot(key);
+    if (keys[slot] == key && replays[slot] < maxReplays) {
+      replays[slot]++;
+      credit[slot]++;
+      HITS.increment();
+      replay(slot, sx, sy, tx, ty, out);
+      return;
+    }
+
+    MISSES.increment();
+    generator.generate(sx, sy, tx, ty, out);
+    if (out.size() > maxPoints) {
+      return;
+    }
+    // Only displace another pair once it has stopped earning its slot
+    if (keys[slot] != key && keys[slot] != EMPTY && --credit[slot] > 0) {
+      return;
+    }
+    keys[slot] = key;
+    out.copyTo(pointXs[slot], pointYs[slot]);
+    lengths[slot] = out.size();
+    ends[slot * 4] = sx;
+    ends[slot * 4 + 1] = sy;
+    ends[slot * 4 + 2] = tx;
+    ends[slot * 4 + 3] = ty;
+    replays[slot] = 0;
+    credit[slot] = 1;
+  }
+
+  private void replay(int slot, int sx, int sy, int tx, int ty, MousePath out) {
+    out.clear();
+    int[] xs = pointXs[slot];
+    int[] ys = pointYs[slot];
+    int length = lengths[slot];
+    int shiftSourceX = sx - ends[slot * 4];
+    int shiftSourceY = sy - ends[slot * 4 + 1];
+    int shiftTargetX = tx - ends[slot * 4 + 2];
+    int shiftTargetY = ty - ends[slot * 4 + 3];
+
+    // Bend perpendicular to the overall direction, most in the middle, none at the ends
+    double dx = tx - sx;
+    double dy = ty - sy;
+    double distance = Math.max(1, PathGenerator.length(dx, dy));
+    double bend = (random.nextDouble() * 2 - 1) * BEND_PX;
+    double normalX = -dy / distance * bend;
+    double normalY = dx / distance * bend;
+
+    int last = length - 1;
+    for (int i = 0; i < last; i++) {
+      double t = (double) (i + 1) / length;
+      double arch = 4 * t * (1 - t);
+      double offsetX = shiftSourceX + (shiftTargetX - shiftSourceX) * t + normalX * arch;
+      double offsetY = shiftSourceY + (shiftTargetY - shiftSourceY) * t + normalY * arch;
+      // One draw covers the -1, 0 or +1 noise of both coordinates
+      long noise = random.nextLong();
+      int x = xs[i] + (int) Math.round(offsetX) + pixelNoise(noise);
+      int y = ys[i] + (int) Math.round(offsetY) + pixelNoise(noise >>> 16);
+      out.addDistinct(x, y);
+    }
+    out.addDistinct(tx, ty);
+  }
+
+  /** @return -1, 0 or 1, from the low 16 bits */
+  private static int pixelNoise(long bits) {
+    return (int) (((bits & 0xFFFF) * 3) >>> 16) - 1;
+  }
+
+  /** Fibonacci hashing: the top bits of the product depend on every bit of the key */
+  private int slot(long key) {
+    return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+  }
+
+  private static long key(int sx, int sy, int tx, int ty) {
+    return ((long) (sx / GRID & 0xFFFF) << 48)
+        | ((long) (sy / GRID & 0xFFFF) << 32)
+        | ((long) (tx / GRID & 0xFFFF) << 16)
+        | (ty / GRID & 0xFFFF);
+  }
+}
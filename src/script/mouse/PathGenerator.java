@@ -0,0 +1,86 @@
+package script.mouse;
+
+import script.random.FastRandom;
+
+/**
+ * Generates human-like mouse paths with the WindMouse model: the cursor is pulled towards the
+ * target by a constant "gravity" while a random "wind" pushes it off course, and the step size is
+ * capped and randomized, so paths curve, wobble and slow down near the target.
+ *
+ * <p>Points are written into a caller-supplied {@link MousePath}; the generator itself allocates
+ * nothing. Not thread safe.
+ */
+public final class PathGenerator {
+  static final double GRAVITY = 9;
+  static final double WIND = 3;
+  static final double MAX_STEP = 15;
+  static final double TARGET_AREA = 12;
+  static final int MAX_ITERATIONS = 4096;
+
+  private static final double SQRT3 = Math.sqrt(3);
+  private static final double SQRT5 = Math.sqrt(5);
+
+  private final FastRandom random;
+
+  /** @param seed Random seed; equal seeds give equal paths */
+  public PathGenerator(long seed) {
+    random = new FastRandom(seed);
+  }
+
+  /**
+   * Generates a path; the source point is not included, the target always is the last point
+   *
+   * @param sx Source x
+   * @param sy Source y
+   * @param tx Target x
+   * @param ty Target y
+   * @param out Receives the points; cleared first
+   */
+  public void generate(int sx, int sy, int tx, int ty, MousePath out) {
+    out.clear();
+    double x = sx;
+    double y = sy;
+    double velocityX = 0;
+    double velocityY = 0;
+    double windX = 0;
+    double windY = 0;
+    double maxStep = MAX_STEP;
+    double wind = WIND;
+    double dist = length(tx - x, ty - y);
+
+    for (int i = 0; i < MAX_ITERATIONS && dist >= 1; i++) {
+      wind = Math.min(wind, dist);
+      if (dist >= TARGET_AREA) {
+        windX = windX / SQRT3 + (random.nextDouble() * 2 - 1) * wind / SQRT5;
+        windY = windY / SQRT3 + (random.nextDouble() * 2 - 1) * wind / SQRT5;
+      } else {
+        // Close to the target: let the wind die down and take smaller steps
+        windX /= SQRT3;
+        windY /= SQRT3;
+        maxStep = maxStep < 3 ? random.nextDouble() * 3 + 3 : maxStep / SQRT5;
+      }
+      velocityX += windX + GRAVITY * (tx - x) / dist;
+      velocityY += windY + GRAVITY * (ty - y) / dist;
+      double speed = length(velocityX, velocityY);
+      if (speed > maxStep) {
+        double clipped = maxStep / 2 + random.nextDouble() * maxStep / 2;
+        velocityX = velocityX / speed * clipped;
+        velocityY = velocityY / speed * clipped;
+      }
+      x += velocityX;
+      y += velocityY;
+      out.addDistinct((int) Math.round(x), (int) Math.round(y));
+      dist = length(tx - x, ty - y);
+    }
+    out.addDistinct(tx, ty);
+  }
+
+  /** Euclidean length, without the overflow guard that makes {@link Math#hypot} slow */
+  static double length(double dx, double dy) {
+    return Math.sqrt(dx * dx + dy * dy);
+  }
+
+  FastRandom random() {
+    return random;
+  }
+}
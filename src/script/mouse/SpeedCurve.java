@@ -0,0 +1,72 @@
+package script.mouse;
+
+import java.util.SplittableRandom;
+
+/**
+ * Precomputed mouse speed profile over a fixed period, sampled by elapsed time.
+ *
+ * <p>The profile layers a slow drift (attention and fatigue), a medium wave and smoothed noise,
+ * scaled into {@code [minSpeed, maxSpeed]} and repeated after {@link #getPeriodMillis()}. All the
+ * math happens once in the constructor; {@link #sample(long)} is a division and an array read.
+ */
+public final class SpeedCurve {
+  private final int[] speeds;
+  private final long stepNanos;
+
+  /**
+   * Builds a curve
+   *
+   * @param seed Random seed; equal seeds give equal curves
+   * @param samples Number of table entries
+   * @param stepMillis Time each entry covers
+   * @param minSpeed Lowest speed on the curve
+   * @param maxSpeed Highest speed on the curve
+   */
+  public SpeedCurve(long seed, int samples, int stepMillis, int minSpeed, int maxSpeed) {
+    if (samples < 2 || stepMillis <= 0 || minSpeed > maxSpeed) {
+      throw new IllegalArgumentException("Invalid curve parameters");
+    }
+    SplittableRandom random = new SplittableRandom(seed);
+    double driftPhase = random.nextDouble(2 * Math.PI);
+    double wavePhase = random.nextDouble(2 * Math.PI);
+    // Whole cycles per period, so the curve wraps around without a jump
+    int waveCycles = 3 + random.nextInt(4);
+
+    double[] raw = new double[samples];
+    double noise = 0;
+    for (int i = 0; i < samples; i++) {
+      double t = 2 * Math.PI * i / samples;
+      noise = 0.85 * noise + 0.15 * (random.nextDouble() * 2 - 1);
+      raw[i] = Math.sin(t + driftPhase) + 0.5 * Math.sin(waveCycles * t + wavePhase) + noise;
+    }
+
+    double low = Double.MAX_VALUE;
+    double high = -Double.MAX_VALUE;
+    for (double value : raw) {
+      low = Math.min(low, value);
+      high = Math.max(high, value);
+    }
+    double range = Math.max(high - low, 1e-9);
+    speeds = new int[samples];
+    for (int i = 0; i < samples; i++) {
+      speeds[i] = minSpeed + (int) Math.round((raw[i] - low) / range * (maxSpeed - minSpeed));
+    }
+    stepNanos = stepMillis * 1_000_000L;
+  }
+
+  /**
+   * Samples the curve
+   *
+   * @param elapsedNanos Time since the curve was started; negative values count as zero
+   * @return The speed at that time
+   */
+  public int sample(long elapsedNanos) {
+    long step = Math.max(0, elapsedNanos) / stepNanos;
+    return speeds[(int) (step % speeds.length)];
+  }
+
+  /** @return Time after which the curve repeats */
+  public long getPeriodMillis() {
+    return speeds.length * (stepNanos / 1_000_000L);
+  }
+}
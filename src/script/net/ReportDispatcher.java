@@ -0,0 +1,299 @@
+package script.net;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import script.metrics.Counter;
+import script.metrics.LatencyHistogram;
+import script.metrics.Metrics;
+
+/**
+ * Sends bug reports to a webhook from a single background thread, so that no network I/O ever
+ * happens on the Swing event thread or the script thread.
+ *
+ * <p>Reports are queued in a bounded queue. Whatever is pending when the worker wakes up is merged
+ * into as few webhook messages as the content limit allows; a report longer than the limit is split
+ * over several messages and only succeeds if all of them do. Failed sends are retried with
+ * exponential backoff on connection errors, 429 and 5xx responses. Completion is reported through
+ * a {@link Callback} run on the executor given at construction, typically {@code
+ * SwingUtilities::invokeLater}.
+ */
+public final class ReportDispatcher {
+  /** Maximum length of a single webhook message */
+  static final int MAX_CONTENT_LENGTH = 2000;
+
+  static final int CONNECT_TIMEOUT_MS = 5000;
+  static final int READ_TIMEOUT_MS = 10000;
+  static final int MAX_ATTEMPTS = 3;
+  static final long INITIAL_BACKOFF_MS = 1000;
+
+  private static final Counter SENT = Metrics.counter("report.sent");
+  private static final Counter FAILED = Metrics.counter("report.failed");
+  private static final Counter RETRIES = Metrics.counter("report.retries");
+  private static final LatencyHistogram SEND_LATENCY = Metrics.histogram("report.latency");
+  private static final String SEPARATOR = "\n\n---\n\n";
+  private static final Report POISON = new Report("", null);
+
+  private final URL endpoint;
+  private final BlockingQueue<Report> queue;
+  private final Executor callbackExecutor;
+  private final Thread worker;
+  private volatile boolean shutdown;
+
+  /**
+   * Creates a dispatcher and starts its worker thread
+   *
+   * @param endpoint Webhook URL to POST to
+   * @param capacity Maximum number of reports waiting to be sent
+   * @param callbackExecutor Executor that runs completion callbacks
+   */
+  public ReportDispatcher(URL endpoint, int capacity, Executor callbackExecutor) {
+    this.endpoint = endpoint;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.callbackExecutor = callbackExecutor;
+    this.worker = new Thread(this::run, "report-dispatcher");
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  /**
+   * Queues a report for sending. Never blocks.
+   *
+   * @param content Report text
+   * @param callback Notified once the report has been sent or has failed
+   * @return false if the dispatcher is shut down or the queue is full
+   */
+  public boolean submit(String content, Callback callback) {
+    return !shutdown && queue.offer(new Report(content, callback));
+  }
+
+  /** Stops accepting reports; anything already queued is still sent */
+  public void shutdown() {
+    if (!shutdown) {
+      shutdown = true;
+      if (!queue.offer(POISON)) {
+        worker.interrupt();
+      }
+    }
+  }
+
+  private void run() {
+    ArrayDeque<Report> pending = new ArrayDeque<>();
+    List<Report> batch = new ArrayList<>();
+    boolean draining = false;
+    try {
+      while (true) {
+        if (pending.isEmpty()) {
+          if (draining) {
+            return;
+          }
+          pending.add(queue.take());
+        }
+        queue.drainTo(pending);
+
+        batch.clear();
+        StringBuilder content = new StringBuilder();
+        while (!pending.isEmpty()) {
+          Report next = pending.peek();
+          if (next == POISON) {
+            pending.poll();
+            draining = true;
+            continue;
+          }
+          int added = next.content.length() + (batch.isEmpty() ? 0 : SEPARATOR.length());
+          if (!batch.isEmpty() && content.length() + added > MAX_CONTENT_LENGTH) {
+            break;
+          }
+          if (!batch.isEmpty()) {
+            content.append(SEPARATOR);
+          }
+          content.append(next.content);
+          batch.add(pending.poll());
+        }
+
+        if (!batch.isEmpty()) {
+          Result result = sendAll(content);
+          for (Report report : batch) {
+            complete(report, result);
+          }
+          batch.clear();
+        }
+      }
+    } catch (InterruptedException e) {
+      Result result = new Result(false, -1, "Dispatcher shut down");
+      // Including the batch whose send was cut short
+      for (Report report : batch) {
+        complete(report, result);
+      }
+      for (Report report : pending) {
+        complete(report, result);
+      }
+      Report report;
+      while ((report = queue.poll()) != null) {
+        complete(report, result);
+      }
+    }
+  }
+
+  /** Sends the content in as many messages as the limit needs, stopping at the first failure */
+  private Result sendAll(StringBuilder content) throws InterruptedException {
+    Result result;
+    int start = 0;
+    do {
+      int end = Math.min(start + MAX_CONTENT_LENGTH, content.length());
+      if (end < content.length() && Character.isHighSurrogate(content.charAt(end - 1))) {
+        // Do not split a surrogate pair across messages
+        end--;
+      }
+      result = sendWithRetry(content.substring(start, end));
+      if (!result.isSuccess()) {
+        break;
+      }
+      start = end;
+    } while (start < content.length());
+    return result;
+  }
+
+  private Result sendWithRetry(String content) throws InterruptedException {
+    byte[] payload = ("{\"content\": \"" + escapeJson(content) + "\"}")
+        .getBytes(StandardCharsets.UTF_8);
+    long backoff = INITIAL_BACKOFF_MS;
+    Result result = null;
+    for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+      long start = System.nanoTime();
+      result = send(payload);
+      SEND_LATENCY.recordSince(start);
+      if (result.isSuccess() || !isRetryable(result.getResponseCode())) {
+        break;
+      }
+      if (attempt < MAX_ATTEMPTS) {
+        RETRIES.increment();
+        Thread.sleep(backoff);
+        backoff *= 2;
+      }
+    }
+    (result.isSuccess() ? SENT : FAILED).increment();
+    return result;
+  }
+
+  private Result send(byte[] payload) {
+    HttpURLConnection connection = null;
+    try {
+      connection = (HttpURLConnection) endpoint.openConnection();
+      connection.setRequestMethod("POST");
+      connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+      connection.setReadTimeout(READ_TIMEOUT_MS);
+      connection.setRequestProperty("Content-Type", "application/json");
+      connection.setRequestProperty(
+          "User-Agent",
+          "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/58.0.3029.110 Safari/537.3");
+      connection.setFixedLengthStreamingMode(payload.length);
+      connection.setDoOutput(true);
+      try (OutputStream os = connection.getOutputStream()) {
+        os.write(payload);
+      }
+
+      int code = connection.getResponseCode();
+      boolean success = code >= 200 && code <= 299;
+      return new Result(success, code, success ? null : "HTTP Response Code: " + code);
+    } catch (IOException e) {
+      return new Result(false, -1, e.getMessage());
+    } finally {
+      if (connection != null) {
+        connection.disconnect();
+      }
+    }
+  }
+
+  private void complete(Report report, Result result) {
+    if (report.callback != null) {
+      callbackExecutor.execute(() -> report.callback.onComplete(result));
+    }
+  }
+
+  /** Connection failures (-1), rate limiting and server errors are worth retrying */
+  private static boolean isRetryable(int code) {
+    return code == -1 || code == 429 || code >= 500;
+  }
+
+  static String escapeJson(String s) {
+    StringBuilder sb = new StringBuilder(s.length() + 16);
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"':
+          sb.append("\\\"");
+          break;
+        case '\\':
+          sb.append("\\\\");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+      }
+    }
+    return sb.toString();
+  }
+
+  /** Receives the outcome of a submitted report */
+  public interface Callback {
+    void onComplete(Result result);
+  }
+
+  /** Outcome of sending a report */
+  public static final class Result {
+    private final boolean success;
+    private final int responseCode;
+    private final String error;
+
+    Result(boolean success, int responseCode, String error) {
+      this.success = success;
+      this.responseCode = responseCode;
+      this.error = error;
+    }
+
+    public boolean isSuccess() {
+      return success;
+    }
+
+    /** @return HTTP response code, or -1 if no response was received */
+    public int getResponseCode() {
+      return responseCode;
+    }
+
+    /** @return Description of the failure, or null on success */
+    public String getError() {
+      return error;
+    }
+  }
+
+  private static final class Report {
+    final String content;
+    final Callback callback;
+
+    Report(String content, Callback callback) {
+      this.content = content;
+      this.callback = callback;
+    }
+  }
+}
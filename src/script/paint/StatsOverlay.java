@@ -0,0 +1,186 @@
+package script.paint;
+
+import gui.components.StyleFactory;
+import gui.components.Theme;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import script.metrics.LatencyHistogram;
+import script.metrics.Metrics;
+
+/**
+ * Pre-rendered stats overlay for the game canvas.
+ *
+ * <p>The overlay is kept as two compatible images. {@link #update} runs on the script thread,
+ * redraws only the value fields that changed into the back image and then publishes it. {@link
+ * #paint(Graphics)} runs on the client's paint thread and does a single {@code drawImage}, so the
+ * per-frame cost does not depend on what the overlay shows. That cost is recorded in the {@code
+ * paint.latency} histogram.
+ */
+public final class StatsOverlay {
+  public static final int WIDTH = 190;
+  public static final int HEIGHT = 102;
+
+  private static final int FIELD_RUNTIME = 0;
+  private static final int FIELD_POTIONS = 1;
+  private static final int FIELD_XP_RATE = 2;
+  private static final int FIELD_STATE = 3;
+  private static final String[] LABELS = {"Runtime:", "Potions:", "XP/h:", "State:"};
+
+  private static final int TITLE_HEIGHT = 24;
+  private static final int ROW_HEIGHT = 18;
+  private static final int VALUE_X = 75;
+
+  private static final LatencyHistogram PAINT_LATENCY = Metrics.histogram("paint.latency");
+
+  private final Theme theme = StyleFactory.getTheme();
+  private final int x;
+  private final int y;
+  private final BufferedImage[] buffers = new BufferedImage[2];
+  private final int[][] drawnVersions = new int[2][LABELS.length];
+  private final int[] versions = new int[LABELS.length];
+  private final long[] raw = {-1, -1, -1, -1};
+  private final String[] text = new String[LABELS.length];
+  private Object lastState;
+  private int back;
+  private volatile BufferedImage front;
+
+  /**
+   * @param x Left edge on the game canvas
+   * @param y Top edge on the game canvas
+   */
+  public StatsOverlay(int x, int y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  /**
+   * Updates the overlay values and re-renders the fields that changed. Script thread only.
+   *
+   * @param runtimeMs Time since the script started
+   * @param potions Potions made so far
+   * @param xpPerHour Herblore experience per hour
+   * @param state Label of the current state; compared by identity, so pass constants
+   */
+  public void update(long runtimeMs, long potions, long xpPerHour, String state) {
+    boolean changed = set(FIELD_RUNTIME, runtimeMs / 1000);
+    changed |= set(FIELD_POTIONS, potions);
+    changed |= set(FIELD_XP_RATE, xpPerHour);
+    if (state != lastState) {
+      lastState = state;
+      text[FIELD_STATE] = state;
+      versions[FIELD_STATE]++;
+      changed = true;
+    }
+    if (!changed && front != null) {
+      return;
+    }
+
+    if (buffers[0] == null) {
+      buffers[0] = createLayer();
+      buffers[1] = createLayer();
+    }
+
+    BufferedImage image = buffers[back];
+    int[] drawn = drawnVersions[back];
+    synchronized (image) {
+      Graphics2D g2d = image.createGraphics();
+      g2d.setRenderingHint(
+          RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+      g2d.setFont(theme.getSmallFont());
+      for (int field = 0; field < LABELS.length; field++) {
+        if (drawn[field] != versions[field]) {
+          drawValue(g2d, field);
+          drawn[field] = versions[field];
+        }
+      }
+      g2d.dispose();
+    }
+    front = image;
+    back ^= 1;
+  }
+
+  /**
+   * Draws the overlay. Paint thread only.
+   *
+   * @param g The client's graphics
+   */
+  public void paint(Graphics g) {
+    BufferedImage image = front;
+    if (image == null) {
+      return;
+    }
+    long start = System.nanoTime();
+    synchronized (image) {
+      g.drawImage(image, x, y, null);
+    }
+    PAINT_LATENCY.recordSince(start);
+  }
+
+  private boolean set(int field, long value) {
+    if (raw[field] == value) {
+      return false;
+    }
+    raw[field] = value;
+    text[field] = format(field, value);
+    versions[field]++;
+    return true;
+  }
+
+  private static String format(int field, long value) {
+    switch (field) {
+      case FIELD_RUNTIME:
+        return String.format("%02d:%02d:%02d", value / 3600, value / 60 % 60, value % 60);
+      case FIELD_XP_RATE:
+        return value >= 1000 ? String.format("%.1fk", value / 1000.0) : Long.toString(value);
+      default:
+        return Long.toString(value);
+    }
+  }
+
+  private void drawValue(Graphics2D g2d, int field) {
+    int rowY = TITLE_HEIGHT + field * ROW_HEIGHT;
+    g2d.setComposite(AlphaComposite.Src);
+    g2d.setColor(theme.getOverlayBackground());
+    g2d.fillRect(VALUE_X, rowY, WIDTH - VALUE_X - 6, ROW_HEIGHT);
+    g2d.setComposite(AlphaComposite.SrcOver);
+    if (text[field] != null) {
+      g2d.setColor(theme.getText());
+      g2d.drawString(text[field], VALUE_X, rowY + 13);
+    }
+  }
+
+  /** Creates an image holding the static parts: background, title and labels */
+  private BufferedImage createLayer() {
+    BufferedImage image;
+    if (GraphicsEnvironment.isHeadless()) {
+      image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+    } else {
+      image =
+          GraphicsEnvironment.getLocalGraphicsEnvironment()
+              .getDefaultScreenDevice()
+              .getDefaultConfiguration()
+              .createCompatibleImage(WIDTH, HEIGHT, Transparency.TRANSLUCENT);
+    }
+
+    Graphics2D g2d = image.createGraphics();
+    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    g2d.setRenderingHint(
+        RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    g2d.setColor(theme.getOverlayBackground());
+    g2d.fillRoundRect(0, 0, WIDTH, HEIGHT, 10, 10);
+    g2d.setColor(theme.getAccent());
+    g2d.fillRect(0, TITLE_HEIGHT - 4, WIDTH, 2);
+
+    g2d.setFont(theme.getSmallBoldFont());
+    g2d.setColor(theme.getHeader());
+    g2d.drawString("XPE Herblore", 8, 15);
+
+    g2d.setFont(theme.getSmallFont());
+    g2d.setColor(theme.getTextSecondary());
+    for (int field = 0; field < LABELS.length; field++) {
+      g2d.drawString(LABELS[field], 8, TITLE_HEIGHT + field * ROW_HEIGHT + 13);
+    }
+    g2d.dispose();
+    return image;
+  }
+}
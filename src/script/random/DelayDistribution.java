@@ -0,0 +1,187 @@
+package script.random;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Immutable distribution of delays in whole milliseconds, sampled in constant time.
+ *
+ * <p>The density is evaluated once per millisecond between the bounds and turned into an alias
+ * table (Vose's method), so a sample is one random draw, an array read and a compare, whatever the
+ * shape. Mixtures such as {@link #bimodal} cost the same to sample as their parts.
+ */
+public final class DelayDistribution {
+  private final int minMs;
+  private final double[] weights;
+  private final long[] thresholds;
+  private final int[] aliases;
+  private final double mean;
+
+  private DelayDistribution(int minMs, double[] weights) {
+    this.minMs = minMs;
+    this.weights = weights;
+    int n = weights.length;
+    thresholds = new long[n];
+    aliases = new int[n];
+
+    double[] scaled = new double[n];
+    int[] small = new int[n];
+    int[] large = new int[n];
+    int smallCount = 0;
+    int largeCount = 0;
+    double sum = 0;
+    for (int i = 0; i < n; i++) {
+      scaled[i] = weights[i] * n;
+      sum += weights[i] * (minMs + i);
+      if (scaled[i] < 1) {
+        small[smallCount++] = i;
+      } else {
+        large[largeCount++] = i;
+      }
+    }
+    mean = sum;
+
+    while (smallCount > 0 && largeCount > 0) {
+      int less = small[--smallCount];
+      int more = large[--largeCount];
+      thresholds[less] = toThreshold(scaled[less]);
+      aliases[less] = more;
+      scaled[more] -= 1 - scaled[less];
+      if (scaled[more] < 1) {
+        small[smallCount++] = more;
+      } else {
+        large[largeCount++] = more;
+      }
+    }
+    // Whatever is left is 1 up to rounding error
+    while (largeCount > 0) {
+      int i = large[--largeCount];
+      thresholds[i] = 1L << 32;
+      aliases[i] = i;
+    }
+    while (smallCount > 0) {
+      int i = small[--smallCount];
+      thresholds[i] = 1L << 32;
+      aliases[i] = i;
+    }
+  }
+
+  /**
+   * Log-normal delays: most are near the median with a long tail of slower reactions
+   *
+   * @param medianMs Median delay
+   * @param sigma Standard deviation of the log of the delay
+   * @param minMs Shortest delay
+   * @param maxMs Longest delay
+   * @return The distribution
+   */
+  public static DelayDistribution logNormal(double medianMs, double sigma, int minMs, int maxMs) {
+    double mu = Math.log(medianMs);
+    return fromDensity(
+        x -> {
+          double z = (Math.log(x) - mu) / sigma;
+          return Math.exp(-0.5 * z * z) / x;
+        },
+        minMs,
+        maxMs);
+  }
+
+  /**
+   * Gamma delays: a shape of 1 is exponential, larger shapes get more symmetric
+   *
+   * @param shape Shape parameter, above 0
+   * @param meanMs Mean delay before clamping to the bounds
+   * @param minMs Shortest delay
+   * @param maxMs Longest delay
+   * @return The distribution
+   */
+  public static DelayDistribution gamma(double shape, double meanMs, int minMs, int maxMs) {
+    double scale = meanMs / shape;
+    return fromDensity(x -> Math.exp((shape - 1) * Math.log(x) - x / scale), minMs, maxMs);
+  }
+
+  /**
+   * Mixture of a focused and a distracted distribution, for the occasional long pause
+   *
+   * @param focused Distribution of most delays
+   * @param distracted Distribution of the distracted delays
+   * @param distractedChance Share of delays drawn from {@code distracted}, 0 to 1
+   * @return The distribution
+   */
+  public static DelayDistribution bimodal(
+      DelayDistribution focused, DelayDistribution distracted, double distractedChance) {
+    int minMs = Math.min(focused.minMs, distracted.minMs);
+    int maxMs = Math.max(focused.getMaxMs(), distracted.getMaxMs());
+    double[] weights = new double[maxMs - minMs + 1];
+    for (int i = 0; i < focused.weights.length; i++) {
+      weights[focused.minMs - minMs + i] += focused.weights[i] * (1 - distractedChance);
+    }
+    for (int i = 0; i < distracted.weights.length; i++) {
+      weights[distracted.minMs - minMs + i] += distracted.weights[i] * distractedChance;
+    }
+    return new DelayDistribution(minMs, weights);
+  }
+
+  /**
+   * Builds a distribution from any density, which need not be normalized
+   *
+   * @param density Relative likelihood of a delay in milliseconds
+   * @param minMs Shortest delay, at least 1
+   * @param maxMs Longest delay
+   * @return The distribution
+   */
+  public static DelayDistribution fromDensity(DoubleUnaryOperator density, int minMs, int maxMs) {
+    if (minMs < 1 || maxMs < minMs) {
+      throw new IllegalArgumentException("Bad bounds " + minMs + ".." + maxMs);
+    }
+    double[] weights = new double[maxMs - minMs + 1];
+    double total = 0;
+    for (int i = 0; i < weights.length; i++) {
+      // Midpoint of the millisecond, so the density is never evaluated at 0
+      double weight = density.applyAsDouble(minMs + i + 0.5);
+      weights[i] = Double.isFinite(weight) && weight > 0 ? weight : 0;
+      total += weights[i];
+    }
+    if (total <= 0) {
+      throw new IllegalArgumentException("Density is zero between " + minMs + " and " + maxMs);
+    }
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] /= total;
+    }
+    return new DelayDistribution(minMs, weights);
+  }
+
+  /**
+   * Samples a delay with the given generator
+   *
+   * @param random Generator owned by the calling thread
+   * @return Delay in milliseconds
+   */
+  public int sample(FastRandom random) {
+    long bits = random.nextLong();
+    // High half picks the column, low half decides between it and its alias
+    int column = (int) (((bits >>> 32) * thresholds.length) >>> 32);
+    return minMs + ((bits & 0xFFFFFFFFL) < thresholds[column] ? column : aliases[column]);
+  }
+
+  /** @return A delay sampled with the calling thread's generator */
+  public int sample() {
+    return sample(FastRandom.current());
+  }
+
+  public int getMinMs() {
+    return minMs;
+  }
+
+  public int getMaxMs() {
+    return minMs + weights.length - 1;
+  }
+
+  /** @return Mean delay in milliseconds */
+  public double getMean() {
+    return mean;
+  }
+
+  private static long toThreshold(double probability) {
+    return (long) (probability * (1L << 32));
+  }
+}
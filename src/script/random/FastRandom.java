@@ -0,0 +1,46 @@
+package script.random;
+
+/**
+ * Small xorshift64* generator. Not thread safe: use one instance per owner, or {@link #current()}
+ * for the calling thread's instance.
+ *
+ * <p>Delay sampling and path generation draw random numbers on every action, so this avoids the
+ * atomic update that {@link java.util.Random} does on every call and never boxes.
+ */
+public final class FastRandom {
+  private static final ThreadLocal<FastRandom> CURRENT =
+      ThreadLocal.withInitial(
+          () -> new FastRandom(System.nanoTime() ^ Thread.currentThread().getId()));
+
+  private long state;
+
+  /** @param seed Seed; equal seeds give equal sequences */
+  public FastRandom(long seed) {
+    // Zero is the one state xorshift never leaves
+    state = seed == 0 ? 0x9E3779B97F4A7C15L : seed;
+  }
+
+  /** @return The calling thread's generator */
+  public static FastRandom current() {
+    return CURRENT.get();
+  }
+
+  public long nextLong() {
+    long x = state;
+    x ^= x >>> 12;
+    x ^= x << 25;
+    x ^= x >>> 27;
+    state = x;
+    return x * 0x2545F4914F6CDD1DL;
+  }
+
+  /** @return Uniform double in [0, 1) */
+  public double nextDouble() {
+    return (nextLong() >>> 11) * 0x1.0p-53;
+  }
+
+  /** @return Uniform int in [0, bound) */
+  public int nextInt(int bound) {
+    return (int) (((nextLong() >>> 33) * bound) >>> 31);
+  }
+}
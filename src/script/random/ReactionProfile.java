@@ -0,0 +1,44 @@
+package script.random;
+
+import java.util.Locale;
+
+/** Preset reaction delay distributions that can be picked by name in the script config */
+public enum ReactionProfile {
+  /** Log-normal around 110 ms */
+  NORMAL(DelayDistribution.logNormal(110, 0.4, 45, 1500)),
+  /** Gamma with a 150 ms mean; fewer very quick reactions than {@link #NORMAL} */
+  GAMMA(DelayDistribution.gamma(3, 150, 45, 1500)),
+  /** Like {@link #NORMAL}, but one reaction in 16 is a pause of a few seconds */
+  DISTRACTED(
+      DelayDistribution.bimodal(
+          DelayDistribution.logNormal(110, 0.4, 45, 1500),
+          DelayDistribution.gamma(2, 3000, 800, 9000),
+          1.0 / 16));
+
+  private final DelayDistribution distribution;
+
+  ReactionProfile(DelayDistribution distribution) {
+    this.distribution = distribution;
+  }
+
+  public DelayDistribution getDistribution() {
+    return distribution;
+  }
+
+  /**
+   * Looks up a profile by name, ignoring case
+   *
+   * @param name Profile name, e.g. {@code distracted}
+   * @return The profile, or null if there is none by that name
+   */
+  public static ReactionProfile find(String name) {
+    if (name == null) {
+      return null;
+    }
+    try {
+      return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
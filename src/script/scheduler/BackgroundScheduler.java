@@ -0,0 +1,42 @@
+package script.scheduler;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One daemon thread shared by all periodic background work of the script, instead of a thread per
+ * feature or per start.
+ *
+ * <p>The thread is created on the first submitted task and exits after a few seconds without
+ * work, so a stopped script leaves nothing running. Cancelled tasks are removed from the queue
+ * right away. Tasks must be short and must not block.
+ */
+public final class BackgroundScheduler {
+  static final String THREAD_NAME = "xpe-background";
+  static final long KEEP_ALIVE_SECONDS = 5;
+
+  private static final ScheduledThreadPoolExecutor EXECUTOR = create();
+
+  private BackgroundScheduler() {}
+
+  /** @return The shared scheduler */
+  public static ScheduledExecutorService get() {
+    return EXECUTOR;
+  }
+
+  private static ScheduledThreadPoolExecutor create() {
+    ScheduledThreadPoolExecutor executor =
+        new ScheduledThreadPoolExecutor(
+            1,
+            task -> {
+              Thread thread = new Thread(task, THREAD_NAME);
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.setKeepAliveTime(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+    executor.allowCoreThreadTimeOut(true);
+    executor.setRemoveOnCancelPolicy(true);
+    return executor;
+  }
+}
@@ -0,0 +1,121 @@
+package script.scheduler;
+
+import java.util.function.LongSupplier;
+import script.metrics.LatencyHistogram;
+import script.metrics.Metrics;
+import script.random.DelayDistribution;
+import script.random.FastRandom;
+
+/**
+ * Works out how long the script loop should sleep, based on what the script is currently doing.
+ *
+ * <p>While a task is running, wake-ups are aligned to the 600 ms game tick so that decisions are
+ * made just after the client has processed new server state. While nothing is running the delay
+ * backs off exponentially, so parked clients barely wake up. With a reaction distribution set,
+ * the delay before acting on a decision is sampled from it instead of being fixed.
+ *
+ * <p>Call {@link #onWake()} at the top of every loop iteration and return {@link #nextDelay(Mode)}
+ * at the bottom. All methods except {@link #onGameTick()} must be called from the script thread.
+ */
+public final class LoopScheduler {
+  public static final int TICK_MS = 600;
+
+  /** How long after a tick boundary the client has finished processing that tick */
+  static final int TICK_OFFSET_MS = 40;
+
+  static final int MIN_DELAY_MS = 20;
+  static final int ACTIVE_DELAY_MS = 60;
+  static final int MIN_IDLE_DELAY_MS = 600;
+  static final int MAX_IDLE_DELAY_MS = 3000;
+
+  /** Late wake-ups; early ones count as zero */
+  private static final LatencyHistogram WAKE_DRIFT = Metrics.histogram("loop.drift");
+
+  private final LongSupplier clock;
+  private final FastRandom random;
+  private DelayDistribution reaction;
+  private volatile long tickAnchor;
+  private long plannedWake = -1;
+  private int idleDelay = MIN_IDLE_DELAY_MS;
+
+  /** Creates a scheduler on the monotonic system clock */
+  public LoopScheduler() {
+    this(() -> System.nanoTime() / 1_000_000L);
+  }
+
+  /**
+   * Creates a scheduler on the given clock
+   *
+   * @param clock Monotonic millisecond clock
+   */
+  public LoopScheduler(LongSupplier clock) {
+    this.clock = clock;
+    this.tickAnchor = clock.getAsLong();
+    this.random = new FastRandom(System.nanoTime());
+  }
+
+  /**
+   * Sets the distribution of delays in {@link Mode#ACTIVE}
+   *
+   * @param reaction Reaction delays, or null for the fixed {@value #ACTIVE_DELAY_MS} ms cap
+   */
+  public void setReaction(DelayDistribution reaction) {
+    this.reaction = reaction;
+  }
+
+  /** Re-anchors the tick phase. Call from the client's game tick callback. */
+  public void onGameTick() {
+    tickAnchor = clock.getAsLong();
+  }
+
+  /** Records how late this wake-up is compared to the delay last handed out */
+  public void onWake() {
+    if (plannedWake >= 0) {
+      WAKE_DRIFT.record((clock.getAsLong() - plannedWake) * 1_000_000L);
+      plannedWake = -1;
+    }
+  }
+
+  /**
+   * Computes the next loop delay and remembers when the loop is expected to wake up again
+   *
+   * @param mode What the script is doing right now
+   * @return Delay in milliseconds
+   */
+  public int nextDelay(Mode mode) {
+    long now = clock.getAsLong();
+    int delay;
+    switch (mode) {
+      case ACTIVE:
+        idleDelay = MIN_IDLE_DELAY_MS;
+        delay =
+            reaction != null
+                ? Math.max(MIN_DELAY_MS, reaction.sample(random))
+                : Math.min(ACTIVE_DELAY_MS, untilNextTick(now));
+        break;
+      case WAITING:
+        idleDelay = MIN_IDLE_DELAY_MS;
+        delay = untilNextTick(now);
+        break;
+      case IDLE:
+      default:
+        delay = idleDelay;
+        idleDelay = Math.min(idleDelay * 2, MAX_IDLE_DELAY_MS);
+        break;
+    }
+    plannedWake = now + delay;
+    return delay;
+  }
+
+  private int untilNextTick(long now) {
+    long phase = Math.floorMod(now - tickAnchor - TICK_OFFSET_MS, (long) TICK_MS);
+    return Math.max(MIN_DELAY_MS, (int) (TICK_MS - phase));
+  }
+
+  /** What the script loop is doing, as far as scheduling is concerned */
+  public enum Mode {
+    IDLE, // Nothing running, back off
+    ACTIVE, // A decision can be made right away, come back quickly
+    WAITING // An action is in progress, wake just after the next tick
+  }
+}
@@ -0,0 +1,514 @@
+package script.sim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import script.game.GameApi;
+import script.herblore.Recipe;
+import script.random.FastRandom;
+
+/**
+ * {@link GameApi} for a bank stocked for one or more recipes on a virtual clock, for running the
+ * script without a client.
+ *
+ * <p>Like the real game, an action only takes effect on a later game tick: opening the bank takes
+ * 2 to 4 ticks of walking, banking and item clicks one tick, and make-all produces one potion
+ * every 2 ticks while the player animates. Clicks made between two ticks are all processed on the
+ * next tick, in order; clicking something else cancels the walk to the bank, and any click
+ * interrupts make-all. Now and then make-all is interrupted on its own, like a level-up dialog
+ * would.
+ *
+ * <p>Like the client's input methods, every click blocks while the mouse moves to its target,
+ * which moves the clock. A click that lands after a tick boundary is processed a tick later.
+ *
+ * <p>Time only moves in {@link #advance(long)} and in the input methods. Not thread safe;
+ * everything runs on the thread that drives the simulation.
+ */
+public final class SimulatedGame implements GameApi {
+  public static final int TICK_MS = 600;
+
+  static final int SLOTS = 28;
+  static final int TICKS_PER_POTION = 2;
+
+  /** One potion in this many ends make-all early */
+  static final int INTERRUPT_ONE_IN = 250;
+
+  /** Mouse travel to a target in an interface, in milliseconds */
+  static final int MIN_TRAVEL_MS = 80;
+
+  static final int MAX_TRAVEL_MS = 180;
+
+  /** Mouse travel to the bank booth in the game world, in milliseconds */
+  static final int MIN_WORLD_TRAVEL_MS = 250;
+
+  static final int MAX_WORLD_TRAVEL_MS = 400;
+
+  /** Pressing a key, which is how the bank is closed */
+  static final int KEY_MS = 40;
+
+  static final int MAX_PENDING = 8;
+
+  private static final int OPEN_BANK = 1;
+  private static final int CLOSE_BANK = 2;
+  private static final int DEPOSIT = 3;
+  private static final int WITHDRAW = 4;
+  private static final int USE = 5;
+
+  private final List<Recipe> recipes = new ArrayList<>();
+  private final FastRandom random;
+  private final int[] slotIds = new int[SLOTS];
+  private final int[] slotAmounts = new int[SLOTS];
+  private int[] bankIds = new int[8];
+  private int[] bankAmounts = new int[8];
+  private int bankSize;
+  private Recipe making;
+
+  private Runnable tickListener = () -> {};
+  private long nowMillis;
+  private long tick;
+  private boolean bankOpen;
+  private boolean makeAllOpen;
+  private long nextPotionTick;
+  private final int[] pendingActions = new int[MAX_PENDING];
+  private final long[] pendingTicks = new long[MAX_PENDING];
+  private final int[] pendingItems = new int[MAX_PENDING];
+  private final int[] pendingAmounts = new int[MAX_PENDING];
+  private int pendingCount;
+  private long experienceTenths;
+  private long lastPotionTick = -1;
+  private int lastProductId = EMPTY;
+  private long runGaps;
+  private long runGapTicks;
+  private long switchGaps;
+  private long switchGapTicks;
+
+  /**
+   * @param recipe The recipe the bank is stocked for
+   * @param primaries Primaries in the bank
+   * @param secondaries Secondaries in the bank
+   * @param seed Random seed; equal seeds give equal runs for equal inputs
+   */
+  public SimulatedGame(Recipe recipe, int primaries, int secondaries, long seed) {
+    this(seed);
+    stock(recipe, primaries, secondaries);
+  }
+
+  /** @param seed Random seed; equal seeds give equal runs for equal inputs */
+  public SimulatedGame(long seed) {
+    this.random = new FastRandom(seed);
+    Arrays.fill(slotIds, EMPTY);
+  }
+
+  /**
+   * Adds supplies for a recipe to the bank; recipes sharing an ingredient share its stock
+   *
+   * @param recipe The recipe
+   * @param primaries Primaries to add
+   * @param secondaries Secondaries to add
+   */
+  public void stock(Recipe recipe, int primaries, int secondaries) {
+    if (!recipes.contains(recipe)) {
+      recipes.add(recipe);
+    }
+    bankAmounts[bankSlot(recipe.getPrimaryId())] += primaries;
+    bankAmounts[bankSlot(recipe.getSecondaryId())] += secondaries;
+    bankSlot(recipe.getProductId());
+  }
+
+  /** @param listener Called after every game tick, like the client's tick callback */
+  public void setTickListener(Runnable listener) {
+    tickListener = listener;
+  }
+
+  /** @return Virtual time in milliseconds since the start */
+  public long nowMillis() {
+    return nowMillis;
+  }
+
+  /** @return Virtual time in nanoseconds since the start */
+  public long nowNanos() {
+    return nowMillis * 1_000_000L;
+  }
+
+  /** @return Game ticks since the start */
+  public long getTick() {
+    return tick;
+  }
+
+  /** @return Potions of all stocked recipes in the bank */
+  public int getBankedProducts() {
+    int total = 0;
+    for (Recipe recipe : recipes) {
+      total += getBankAmount(recipe.getProductId());
+    }
+    return total;
+  }
+
+  /**
+   * @param itemId The item ID
+   * @return Amount in the bank
+   */
+  public int getBankAmount(int itemId) {
+    for (int slot = 0; slot < bankSize; slot++) {
+      if (bankIds[slot] == itemId) {
+        return bankAmounts[slot];
+      }
+    }
+    return 0;
+  }
+
+  /** @return Mean ticks between the last and first potion of make-all runs of the same recipe */
+  public double getRunGapTicks() {
+    return (double) runGapTicks / Math.max(1, runGaps);
+  }
+
+  /** @return Mean ticks between the last potion of one recipe and the first of the next */
+  public double getSwitchGapTicks() {
+    return (double) switchGapTicks / Math.max(1, switchGaps);
+  }
+
+  /** @return Number of times the potion being made changed */
+  public long getSwitches() {
+    return switchGaps;
+  }
+
+  /**
+   * Moves the virtual clock forward, processing every game tick on the way
+   *
+   * @param millis How far to move, in milliseconds
+   */
+  public void advance(long millis) {
+    long target = nowMillis + Math.max(0, millis);
+    long nextTickMillis = (tick + 1) * TICK_MS;
+    while (nextTickMillis <= target) {
+      nowMillis = nextTickMillis;
+      tick++;
+      processTick();
+      tickListener.run();
+      nextTickMillis += TICK_MS;
+    }
+    nowMillis = target;
+  }
+
+  private void processTick() {
+    int kept = 0;
+    for (int i = 0; i < pendingCount; i++) {
+      if (tick >= pendingTicks[i]) {
+        apply(pendingActions[i], pendingItems[i], pendingAmounts[i]);
+      } else {
+        pendingActions[kept] = pendingActions[i];
+        pendingTicks[kept] = pendingTicks[i];
+        pendingItems[kept] = pendingItems[i];
+        pendingAmounts[kept] = pendingAmounts[i];
+        kept++;
+      }
+    }
+    pendingCount = kept;
+    if (making != null && tick >= nextPotionTick) {
+      makePotion();
+    }
+  }
+
+  private void apply(int action, int itemId, int arg) {
+    switch (action) {
+      case OPEN_BANK:
+        bankOpen = true;
+        break;
+      case CLOSE_BANK:
+        bankOpen = false;
+        break;
+      case DEPOSIT:
+        if (bankOpen) {
+          depositAllNow();
+        }
+        break;
+      case WITHDRAW:
+        if (bankOpen) {
+          withdrawNow(itemId, arg);
+        }
+        break;
+      case USE:
+        makeAllOpen = !bankOpen && find(itemId) >= 0 && find(arg) >= 0;
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void makePotion() {
+    Recipe recipe = making;
+    int primarySlot = find(recipe.getPrimaryId());
+    int secondarySlot = find(recipe.getSecondaryId());
+    if (primarySlot < 0
+        || inventoryCount(recipe.getSecondaryId()) < recipe.getSecondaryPerPotion()) {
+      making = null;
+      return;
+    }
+    recordGap(recipe.getProductId());
+    slotIds[primarySlot] = recipe.getProductId();
+    slotAmounts[primarySlot] = 1;
+    if (recipe.isStackableSecondary()) {
+      slotAmounts[secondarySlot] -= recipe.getSecondaryPerPotion();
+      if (slotAmounts[secondarySlot] == 0) {
+        slotIds[secondarySlot] = EMPTY;
+      }
+    } else {
+      for (int i = 0; i < recipe.getSecondaryPerPotion(); i++) {
+        int slot = find(recipe.getSecondaryId());
+        slotIds[slot] = EMPTY;
+        slotAmounts[slot] = 0;
+      }
+    }
+    experienceTenths += Math.round(recipe.getXp() * 10);
+    nextPotionTick = tick + TICKS_PER_POTION;
+    if (random.nextInt(INTERRUPT_ONE_IN) == 0) {
+      making = null;
+    }
+  }
+
+  /** Tracks the idle ticks before each make-all run, telling recipe switches apart */
+  private void recordGap(int productId) {
+    long gap = tick - lastPotionTick;
+    if (lastPotionTick >= 0 && gap > TICKS_PER_POTION) {
+      if (productId == lastProductId) {
+        runGaps++;
+        runGapTicks += gap;
+      } else {
+        switchGaps++;
+        switchGapTicks += gap;
+      }
+    }
+    lastPotionTick = tick;
+    lastProductId = productId;
+  }
+
+  private void depositAllNow() {
+    for (int i = 0; i < SLOTS; i++) {
+      if (slotIds[i] != EMPTY) {
+        bankAmounts[bankSlot(slotIds[i])] += slotAmounts[i];
+      }
+      slotIds[i] = EMPTY;
+      slotAmounts[i] = 0;
+    }
+  }
+
+  private void withdrawNow(int itemId, int amount) {
+    int slot = bankSlot(itemId);
+    bankAmounts[slot] -=
+        addToInventory(itemId, Math.min(amount, bankAmounts[slot]), isStackable(itemId));
+  }
+
+  private boolean isStackable(int itemId) {
+    for (Recipe recipe : recipes) {
+      if (recipe.getSecondaryId() == itemId) {
+        return recipe.isStackableSecondary();
+      }
+    }
+    return false;
+  }
+
+  /** @return The bank slot of an item, adding an empty one if it is not in the bank yet */
+  private int bankSlot(int itemId) {
+    for (int slot = 0; slot < bankSize; slot++) {
+      if (bankIds[slot] == itemId) {
+        return slot;
+      }
+    }
+    if (bankSize == bankIds.length) {
+      bankIds = Arrays.copyOf(bankIds, bankSize * 2);
+      bankAmounts = Arrays.copyOf(bankAmounts, bankSize * 2);
+    }
+    bankIds[bankSize] = itemId;
+    return bankSize++;
+  }
+
+  /** @return How many were added */
+  private int addToInventory(int itemId, int amount, boolean stackable) {
+    if (amount <= 0) {
+      return 0;
+    }
+    if (stackable) {
+      int slot = find(itemId);
+      if (slot < 0) {
+        slot = find(EMPTY);
+      }
+      if (slot < 0) {
+        return 0;
+      }
+      slotIds[slot] = itemId;
+      slotAmounts[slot] += amount;
+      return amount;
+    }
+    int added = 0;
+    for (int i = 0; i < SLOTS && added < amount; i++) {
+      if (slotIds[i] == EMPTY) {
+        slotIds[i] = itemId;
+        slotAmounts[i] = 1;
+        added++;
+      }
+    }
+    return added;
+  }
+
+  private int find(int itemId) {
+    for (int i = 0; i < SLOTS; i++) {
+      if (slotIds[i] == itemId) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Queues an action for a later tick, as of the time the click landed */
+  private boolean send(int action, int itemId, int arg, int delayTicks) {
+    making = null;
+    makeAllOpen = false;
+    for (int i = 0; i < pendingCount; i++) {
+      if (pendingActions[i] == action && pendingItems[i] == itemId) {
+        // Clicking the same thing again does not restart it
+        return true;
+      }
+    }
+    if (action != OPEN_BANK) {
+      cancel(OPEN_BANK);
+    }
+    if (pendingCount == MAX_PENDING) {
+      return false;
+    }
+    pendingActions[pendingCount] = action;
+    pendingTicks[pendingCount] = tick + delayTicks;
+    pendingItems[pendingCount] = itemId;
+    pendingAmounts[pendingCount] = arg;
+    pendingCount++;
+    return true;
+  }
+
+  private void cancel(int action) {
+    int kept = 0;
+    for (int i = 0; i < pendingCount; i++) {
+      if (pendingActions[i] != action) {
+        pendingActions[kept] = pendingActions[i];
+        pendingTicks[kept] = pendingTicks[i];
+        pendingItems[kept] = pendingItems[i];
+        pendingAmounts[kept] = pendingAmounts[i];
+        kept++;
+      }
+    }
+    pendingCount = kept;
+  }
+
+  /** Moves the mouse onto a target, letting the clock run for as long as that takes */
+  private void moveTo(int minMillis, int maxMillis) {
+    advance(minMillis + random.nextInt(maxMillis - minMillis + 1));
+  }
+
+  @Override
+  public boolean isBankOpen() {
+    return bankOpen;
+  }
+
+  @Override
+  public boolean openBank() {
+    moveTo(MIN_WORLD_TRAVEL_MS, MAX_WORLD_TRAVEL_MS);
+    return send(OPEN_BANK, EMPTY, 0, 2 + random.nextInt(3));
+  }
+
+  @Override
+  public boolean closeBank() {
+    if (!bankOpen) {
+      return false;
+    }
+    advance(KEY_MS);
+    return send(CLOSE_BANK, EMPTY, 0, 1);
+  }
+
+  @Override
+  public boolean depositAll() {
+    if (!bankOpen) {
+      return false;
+    }
+    moveTo(MIN_TRAVEL_MS, MAX_TRAVEL_MS);
+    return send(DEPOSIT, EMPTY, 0, 1);
+  }
+
+  @Override
+  public boolean withdraw(int itemId, int amount) {
+    if (!bankOpen || getBankAmount(itemId) == 0) {
+      return false;
+    }
+    moveTo(MIN_TRAVEL_MS, MAX_TRAVEL_MS);
+    return send(WITHDRAW, itemId, amount, 1);
+  }
+
+  @Override
+  public void readInventory(int[] ids, int[] amounts) {
+    System.arraycopy(slotIds, 0, ids, 0, SLOTS);
+    System.arraycopy(slotAmounts, 0, amounts, 0, SLOTS);
+  }
+
+  @Override
+  public int readBank(int[] ids, int[] amounts) {
+    if (!bankOpen) {
+      return -1;
+    }
+    // Emptied items stay behind as placeholders with amount 0
+    System.arraycopy(bankIds, 0, ids, 0, bankSize);
+    System.arraycopy(bankAmounts, 0, amounts, 0, bankSize);
+    return bankSize;
+  }
+
+  private int inventoryCount(int itemId) {
+    int count = 0;
+    for (int i = 0; i < SLOTS; i++) {
+      if (slotIds[i] == itemId) {
+        count += slotAmounts[i];
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public boolean useItemOn(int itemId, int targetId) {
+    if (find(itemId) < 0 || find(targetId) < 0) {
+      return false;
+    }
+    moveTo(MIN_TRAVEL_MS, MAX_TRAVEL_MS);
+    moveTo(MIN_TRAVEL_MS, MAX_TRAVEL_MS);
+    return send(USE, itemId, targetId, 1);
+  }
+
+  @Override
+  public boolean isMakeAllOpen() {
+    return makeAllOpen;
+  }
+
+  @Override
+  public boolean makeAll(String productName) {
+    Recipe recipe = null;
+    for (Recipe candidate : recipes) {
+      if (candidate.getProductName().equals(productName)) {
+        recipe = candidate;
+        break;
+      }
+    }
+    if (!makeAllOpen || recipe == null) {
+      return false;
+    }
+    moveTo(MIN_TRAVEL_MS, MAX_TRAVEL_MS);
+    makeAllOpen = false;
+    pendingCount = 0;
+    making = recipe;
+    nextPotionTick = tick + TICKS_PER_POTION;
+    return true;
+  }
+
+  @Override
+  public boolean isAnimating() {
+    return making != null;
+  }
+
+  @Override
+  public int getHerbloreExperience() {
+    return (int) (experienceTenths / 10);
+  }
+}
@@ -0,0 +1,274 @@
+package script.sim;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import script.herblore.HerbloreEngine;
+import script.herblore.Job;
+import script.herblore.Phase;
+import script.herblore.Recipe;
+import script.herblore.RecipeCatalog;
+import script.metrics.LatencyHistogram;
+import script.random.ReactionProfile;
+import script.scheduler.LoopScheduler;
+
+/**
+ * Runs the herblore loop against a {@link SimulatedGame} on a virtual clock and reports
+ * throughput per simulated hour and CPU time per loop iteration.
+ *
+ * <p>Each iteration does what {@code BotExecute.onLoop} does for the engine: wake the scheduler,
+ * step the engine and ask for the next delay, which then moves the virtual clock instead of
+ * sleeping. Game ticks reach the scheduler through the simulator's tick callback.
+ *
+ * <p>Run with {@code java script.sim.Simulation [jobs] [hours] [seed] [pipeline]}, where pipeline
+ * turns the engine's action pipeline on (the default) or off, and jobs is a potion
+ * name or a job queue such as {@code "Prayer potion:500|Super restore potion"}. The bank holds
+ * one extra inventory beyond each job's target, so targeted jobs end on their target; jobs without
+ * a target get enough stock to last the session.
+ */
+public final class Simulation {
+  private final List<Job> jobs;
+  private final ReactionProfile reaction;
+  private final long seed;
+  private boolean pipelining = true;
+
+  /**
+   * @param recipe The recipe to craft
+   * @param reaction Reaction delays handed to the scheduler
+   * @param seed Random seed of the game and its delays
+   */
+  public Simulation(Recipe recipe, ReactionProfile reaction, long seed) {
+    this(Collections.singletonList(Job.untilOutOfStock(recipe)), reaction, seed);
+  }
+
+  /**
+   * @param jobs The jobs to work through
+   * @param reaction Reaction delays handed to the scheduler
+   * @param seed Random seed of the game and its delays
+   */
+  public Simulation(List<Job> jobs, ReactionProfile reaction, long seed) {
+    this.jobs = jobs;
+    this.reaction = reaction;
+    this.seed = seed;
+  }
+
+  /** @param pipelining Whether the engine pipelines its clicks */
+  public void setPipelining(boolean pipelining) {
+    this.pipelining = pipelining;
+  }
+
+  public static void main(String[] args) {
+    String spec = args.length > 0 ? args[0] : "Prayer potion";
+    double hours = args.length > 1 ? Double.parseDouble(args[1]) : 10;
+    long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+    boolean pipelining = args.length <= 3 || Boolean.parseBoolean(args[3]);
+    List<Job> jobs;
+    try {
+      jobs = Job.parseAll(spec, RecipeCatalog.getDefault());
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.exit(1);
+      return;
+    }
+
+    Simulation simulation = new Simulation(jobs, ReactionProfile.NORMAL, seed);
+    simulation.setPipelining(pipelining);
+    // Warm up so the report measures compiled code
+    simulation.run(1);
+    System.out.println(simulation.run(hours));
+  }
+
+  /**
+   * Runs one session from a fresh game
+   *
+   * @param hours Simulated hours; the session ends earlier if the bank runs out
+   * @return The report
+   */
+  public Report run(double hours) {
+    long endMillis = (long) (hours * 3_600_000);
+    // Enough stock to last, assuming no more than one potion per tick
+    int unlimited = (int) Math.min(Integer.MAX_VALUE / 4, endMillis / SimulatedGame.TICK_MS + 1);
+    SimulatedGame game = new SimulatedGame(seed);
+    for (Job job : jobs) {
+      Recipe recipe = job.getRecipe();
+      int stock =
+          job.isUntilOutOfStock() ? unlimited : job.getTargetPotions() + recipe.getBatchSize();
+      game.stock(recipe, stock, stock * recipe.getSecondaryPerPotion());
+    }
+    LoopScheduler scheduler = new LoopScheduler(game::nowMillis);
+    scheduler.setReaction(reaction.getDistribution());
+    HerbloreEngine engine = new HerbloreEngine(game, game::nowNanos);
+    engine.setPipelining(pipelining);
+    game.setTickListener(
+        () -> {
+          scheduler.onGameTick();
+          engine.onGameTick();
+        });
+    LatencyHistogram iterations = new LatencyHistogram();
+
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    long cpuStart = threads.getCurrentThreadCpuTime();
+    long wallStart = System.nanoTime();
+    engine.start(jobs);
+    do {
+      long start = System.nanoTime();
+      scheduler.onWake();
+      LoopScheduler.Mode mode = engine.loop();
+      int delay = scheduler.nextDelay(mode);
+      iterations.recordSince(start);
+      game.advance(delay);
+    } while (engine.isRunning() && game.nowMillis() < endMillis);
+    long wallNanos = System.nanoTime() - wallStart;
+    long cpuNanos = threads.getCurrentThreadCpuTime() - cpuStart;
+
+    return new Report(jobs, pipelining, engine, game, iterations, wallNanos, cpuNanos);
+  }
+
+  /** Outcome of one simulated session */
+  public static final class Report {
+    private final List<Job> jobs;
+    private final boolean pipelining;
+    private final int jobsStarted;
+    private final long simulatedMillis;
+    private final long ticks;
+    private final long cycles;
+    private final long potions;
+    private final int experience;
+    private final long itemSyncs;
+    private final double ticksLostPerCycle;
+    private final double runGapTicks;
+    private final double switchGapTicks;
+    private final long switches;
+    private final long[] phaseMillis = new long[Phase.values().length];
+    private final LatencyHistogram iterations;
+    private final long wallNanos;
+    private final long cpuNanos;
+
+    Report(
+        List<Job> jobs,
+        boolean pipelining,
+        HerbloreEngine engine,
+        SimulatedGame game,
+        LatencyHistogram iterations,
+        long wallNanos,
+        long cpuNanos) {
+      this.jobs = jobs;
+      this.pipelining = pipelining;
+      this.jobsStarted = Math.min(jobs.size(), engine.getJobs().getIndex() + 1);
+      this.simulatedMillis = game.nowMillis();
+      this.ticks = game.getTick();
+      this.cycles = engine.getCycles();
+      this.potions = engine.getPotionsMade();
+      this.experience = game.getHerbloreExperience();
+      this.itemSyncs = engine.getItems().getSyncs();
+      this.ticksLostPerCycle = engine.getTicksLostPerCycle();
+      this.runGapTicks = game.getRunGapTicks();
+      this.switchGapTicks = game.getSwitchGapTicks();
+      this.switches = game.getSwitches();
+      for (Phase phase : Phase.values()) {
+        phaseMillis[phase.ordinal()] = engine.getPhaseMillis(phase);
+      }
+      this.iterations = iterations;
+      this.wallNanos = wallNanos;
+      this.cpuNanos = cpuNanos;
+    }
+
+    public double getSimulatedHours() {
+      return simulatedMillis / 3_600_000.0;
+    }
+
+    public double getCyclesPerHour() {
+      return cycles / getSimulatedHours();
+    }
+
+    public double getPotionsPerHour() {
+      return potions / getSimulatedHours();
+    }
+
+    /** @return Mean ticks per bank trip lost to waiting on clicks, see the engine */
+    public double getTicksLostPerCycle() {
+      return ticksLostPerCycle;
+    }
+
+    /** @return Thread CPU time per loop iteration, in nanoseconds */
+    public double getCpuNanosPerIteration() {
+      return (double) cpuNanos / Math.max(1, iterations.getCount());
+    }
+
+    /** @return Simulated time over wall time */
+    public double getSpeedup() {
+      return simulatedMillis * 1e6 / Math.max(1, wallNanos);
+    }
+
+    @Override
+    public String toString() {
+      double hours = getSimulatedHours();
+      StringBuilder out = new StringBuilder();
+      out.append(
+          String.format(
+              Locale.ROOT,
+              "%s: %.2f simulated hours (%d ticks) in %.1f ms wall, %.0fx real time%n",
+              jobs.size() == 1 ? jobs.get(0) : jobs,
+              hours,
+              ticks,
+              wallNanos / 1e6,
+              getSpeedup()));
+      out.append(
+          String.format(
+              Locale.ROOT,
+              "  %d cycles (%.1f/h), %d potions (%.0f/h), %.0f xp/h%n",
+              cycles,
+              getCyclesPerHour(),
+              potions,
+              getPotionsPerHour(),
+              experience / hours));
+      out.append(
+          String.format(
+              Locale.ROOT,
+              "  pipelining %s: %.2f ticks lost per cycle%n",
+              pipelining ? "on" : "off",
+              ticksLostPerCycle));
+      out.append(
+          String.format(
+              Locale.ROOT,
+              "  %d loop iterations (%.0f/h), CPU %.0f ns/iteration, latency p50 %d ns, p99 %d ns,"
+                  + " max %d ns%n",
+              iterations.getCount(),
+              iterations.getCount() / hours,
+              getCpuNanosPerIteration(),
+              iterations.getPercentileNanos(50),
+              iterations.getPercentileNanos(99),
+              iterations.getMaxNanos()));
+      out.append(
+          String.format(
+              Locale.ROOT,
+              "  %d container syncs (%.2f per iteration)%n",
+              itemSyncs,
+              (double) itemSyncs / Math.max(1, iterations.getCount())));
+      if (jobs.size() > 1) {
+        out.append(
+            String.format(
+                Locale.ROOT,
+                "  %d of %d jobs started, %d switches: %.1f ticks between recipes vs %.1f between"
+                    + " runs of one recipe%n",
+                jobsStarted,
+                jobs.size(),
+                switches,
+                switchGapTicks,
+                runGapTicks));
+      }
+      out.append("  time per phase:");
+      for (Phase phase : Phase.values()) {
+        out.append(
+            String.format(
+                Locale.ROOT,
+                " %s %.1f%%",
+                phase.getLabel(),
+                100.0 * phaseMillis[phase.ordinal()] / Math.max(1, simulatedMillis)));
+      }
+      return out.toString();
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package script.control;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import script.herblore.Job;
+import script.herblore.Recipe;
+import script.herblore.RecipeCatalog;
+
+class ScriptControlTest {
+  private final Recipe prayer = RecipeCatalog.getDefault().find("Prayer potion");
+
+  @Test
+  void offeredJobsIncludeUndrainedRequests() {
+    ScriptControl control = new ScriptControl();
+    Job first = Job.potions(prayer, 100);
+    Job second = Job.untilOutOfStock(prayer);
+
+    assertTrue(control.addJob(first));
+    assertTrue(control.addJob(second));
+    assertEquals(Arrays.asList(first, second), control.getOfferedJobs());
+    assertTrue(control.getState().getJobs().isEmpty(), "drained before drain()");
+
+    assertEquals(control.getOfferedJobs(), control.drain().getJobs());
+  }
+
+  @Test
+  void clearEmptiesOfferedJobsAtOnce() {
+    ScriptControl control = new ScriptControl();
+    control.addJob(Job.potions(prayer, 100));
+    control.drain();
+
+    assertTrue(control.clearJobs());
+    assertTrue(control.getOfferedJobs().isEmpty());
+    assertEquals(1, control.getState().getJobs().size());
+    assertTrue(control.drain().getJobs().isEmpty());
+  }
+
+  @Test
+  void droppedRequestsLeaveOfferedJobsAlone() {
+    ScriptControl control = new ScriptControl();
+    Job job = Job.potions(prayer, 100);
+    int accepted = 0;
+    while (control.addJob(job)) {
+      accepted++;
+    }
+    assertEquals(accepted, control.getOfferedJobs().size());
+    assertEquals(accepted, control.drain().getJobs().size());
+  }
+}
@@ -0,0 +1,78 @@
+package script.mouse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class MouseSpeedEngineTest {
+  private static final String THREAD_NAME = "xpe-background";
+  // BackgroundScheduler.KEEP_ALIVE_SECONDS plus some slack
+  private static final long THREAD_EXIT_MILLIS = 8_000;
+  private static final int RESTING_SPEED = 50;
+
+  @Test
+  void repeatedStartStopLeavesNoExtraThreads() throws InterruptedException {
+    AtomicInteger updates = new AtomicInteger();
+    MouseSpeedEngine engine =
+        new MouseSpeedEngine(speed -> updates.incrementAndGet(), RESTING_SPEED, 35, 95, 42);
+
+    for (int cycle = 0; cycle < 200; cycle++) {
+      engine.start();
+      engine.start();
+      assertTrue(engine.isRunning());
+      assertTrue(backgroundThreads() <= 1, "more than one background thread");
+      if (cycle % 20 == 0) {
+        // Let a few ticks run now and then
+        Thread.sleep(MouseSpeedEngine.TICK_MS * 2);
+      }
+      engine.stop();
+      assertFalse(engine.isRunning());
+    }
+    assertTrue(backgroundThreads() <= 1, "more than one background thread");
+
+    long deadline = System.currentTimeMillis() + THREAD_EXIT_MILLIS;
+    while (backgroundThreads() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(100);
+    }
+    assertEquals(0, backgroundThreads(), "background thread still alive after the keep-alive");
+  }
+
+  @Test
+  void noSpeedUpdatesAfterStop() throws InterruptedException {
+    AtomicInteger updates = new AtomicInteger();
+    AtomicInteger lastSpeed = new AtomicInteger();
+    MouseSpeedEngine engine =
+        new MouseSpeedEngine(
+            speed -> {
+              updates.incrementAndGet();
+              lastSpeed.set(speed);
+            },
+            RESTING_SPEED,
+            35,
+            95,
+            7);
+
+    for (int cycle = 0; cycle < 20; cycle++) {
+      engine.start();
+      Thread.sleep(cycle % 5 * 60);
+      engine.stop();
+      int afterStop = updates.get();
+      assertEquals(RESTING_SPEED, lastSpeed.get(), "stop() must restore the resting speed");
+      Thread.sleep(MouseSpeedEngine.TICK_MS + 50);
+      assertEquals(afterStop, updates.get(), "speed update after stop()");
+    }
+  }
+
+  private static int backgroundThreads() {
+    int count = 0;
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (thread.isAlive() && THREAD_NAME.equals(thread.getName())) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,155 @@
+package script.net;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ReportDispatcherTest {
+  private static final long SLOW_SEND_MILLIS = 1500;
+  // Generous bound for a no-op round trip through a busy CI machine's event queue
+  private static final long MAX_EDT_LATENCY_MILLIS = 100;
+
+  private HttpServer server;
+
+  @AfterEach
+  void stopServer() {
+    if (server != null) {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  void edtLatencyStaysFlatDuringSlowSend() throws Exception {
+    URL endpoint = startServer(204, SLOW_SEND_MILLIS, new CopyOnWriteArrayList<>(), null);
+    ReportDispatcher dispatcher = new ReportDispatcher(endpoint, 4, SwingUtilities::invokeLater);
+    CountDownLatch done = new CountDownLatch(1);
+    AtomicReference<ReportDispatcher.Result> result = new AtomicReference<>();
+
+    long submitStart = System.nanoTime();
+    SwingUtilities.invokeAndWait(
+        () ->
+            assertTrue(
+                dispatcher.submit(
+                    "slow report",
+                    r -> {
+                      result.set(r);
+                      done.countDown();
+                    })));
+    long maxNanos = System.nanoTime() - submitStart;
+
+    int samples = 0;
+    while (done.getCount() > 0) {
+      long start = System.nanoTime();
+      SwingUtilities.invokeAndWait(() -> {});
+      maxNanos = Math.max(maxNanos, System.nanoTime() - start);
+      samples++;
+      Thread.sleep(10);
+    }
+    dispatcher.shutdown();
+
+    assertTrue(result.get().isSuccess());
+    assertTrue(samples > SLOW_SEND_MILLIS / 20, "too few samples taken during the send");
+    long maxMillis = TimeUnit.NANOSECONDS.toMillis(maxNanos);
+    assertTrue(
+        maxMillis < MAX_EDT_LATENCY_MILLIS,
+        "EDT blocked for " + maxMillis + " ms while a send was in flight");
+  }
+
+  @Test
+  void overLongReportIsSplitAcrossMessages() throws Exception {
+    List<String> bodies = new CopyOnWriteArrayList<>();
+    URL endpoint = startServer(204, 0, bodies, null);
+    ReportDispatcher dispatcher = new ReportDispatcher(endpoint, 4, Runnable::run);
+    CountDownLatch done = new CountDownLatch(1);
+    AtomicReference<ReportDispatcher.Result> result = new AtomicReference<>();
+
+    StringBuilder report = new StringBuilder();
+    for (int i = 0; i < ReportDispatcher.MAX_CONTENT_LENGTH * 2 + 500; i++) {
+      report.append('x');
+    }
+    assertTrue(
+        dispatcher.submit(
+            report.toString(),
+            r -> {
+              result.set(r);
+              done.countDown();
+            }));
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    dispatcher.shutdown();
+
+    assertTrue(result.get().isSuccess());
+    assertEquals(3, bodies.size());
+    int total = 0;
+    for (String body : bodies) {
+      int length = body.length() - body.replace("x", "").length();
+      assertTrue(length <= ReportDispatcher.MAX_CONTENT_LENGTH, "message over the limit");
+      total += length;
+    }
+    assertEquals(report.length(), total, "content lost when splitting");
+  }
+
+  @Test
+  void interruptedSendStillCompletesItsReports() throws Exception {
+    CountDownLatch received = new CountDownLatch(1);
+    URL endpoint = startServer(500, 0, new CopyOnWriteArrayList<>(), received);
+    ReportDispatcher dispatcher = new ReportDispatcher(endpoint, 1, Runnable::run);
+    CountDownLatch done = new CountDownLatch(2);
+    List<ReportDispatcher.Result> results = new CopyOnWriteArrayList<>();
+    ReportDispatcher.Callback callback =
+        r -> {
+          results.add(r);
+          done.countDown();
+        };
+
+    assertTrue(dispatcher.submit("in flight", callback));
+    assertTrue(received.await(10, TimeUnit.SECONDS));
+    // Fills the queue, so shutdown has to interrupt the worker during its retry backoff
+    assertTrue(dispatcher.submit("queued", callback));
+    dispatcher.shutdown();
+
+    assertTrue(done.await(10, TimeUnit.SECONDS), "a report never got its callback");
+    for (ReportDispatcher.Result r : results) {
+      assertFalse(r.isSuccess());
+    }
+  }
+
+  private URL startServer(int code, long delayMillis, List<String> bodies, CountDownLatch received)
+      throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          try (InputStream in = exchange.getRequestBody()) {
+            bodies.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+          }
+          if (received != null) {
+            received.countDown();
+          }
+          try {
+            Thread.sleep(delayMillis);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          exchange.sendResponseHeaders(code, -1);
+          exchange.close();
+        });
+    server.start();
+    return new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+  }
+}